@@ -0,0 +1,275 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+
+import com.dataweaver.DataWeaver.config.ColumnSizing;
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.config.SheetLayout;
+import com.dataweaver.DataWeaver.dto.GenerationOptions;
+import com.dataweaver.DataWeaver.model.OutputFormat;
+import com.dataweaver.DataWeaver.model.TimesheetIndex;
+import com.dataweaver.DataWeaver.model.TimesheetRecord;
+import com.dataweaver.DataWeaver.model.UploadFormat;
+import com.dataweaver.DataWeaver.reader.ColumnMapping;
+import com.dataweaver.DataWeaver.reader.DelimitedTimesheetReader;
+import com.dataweaver.DataWeaver.reader.HoursRounding;
+import com.dataweaver.DataWeaver.reader.StreamingTimesheetReader;
+import com.dataweaver.DataWeaver.reader.WorkbookTimesheetReader;
+import com.dataweaver.DataWeaver.support.SyntheticTimesheet;
+import com.dataweaver.DataWeaver.writer.ColumnWidthEstimator;
+import com.dataweaver.DataWeaver.writer.EmployeeSheet;
+import com.dataweaver.DataWeaver.writer.EmployeeSheetBuilder;
+import com.dataweaver.DataWeaver.writer.SheetNames;
+import com.dataweaver.DataWeaver.writer.SheetPlan;
+import com.dataweaver.DataWeaver.writer.WorkCalendar;
+import com.dataweaver.DataWeaver.writer.WorkbookStyleRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Times each stage of {@link DataWeaverService} on a synthetic upload, plus
+ * the whole pipeline. Stages are measured on inputs prepared by the stage
+ * before, so each benchmark covers one stage only. Run with
+ * {@code mvn -Pbenchmarks verify}; see the benchmarks profile in pom.xml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerateExcelBenchmark {
+
+    @Param({"50", "300"})
+    public int employees;
+
+    @Param({"31"})
+    public int days;
+
+    @Param({"3"})
+    public int entriesPerDay;
+
+    @Param({"STANDARD", "SHUFFLED"})
+    public SyntheticTimesheet.ColumnOrder columnOrder;
+
+    private DataWeaverService service;
+    private StreamingTimesheetReader streamingReader;
+    private WorkbookTimesheetReader workbookReader;
+    private DelimitedTimesheetReader delimitedReader;
+    private EmployeeSheetBuilder sheetBuilder;
+    private XlsxReportWriter xlsxWriter;
+
+    private byte[] upload;
+    private byte[] csvUpload;
+    private Path csvFile;
+    private List<TimesheetRecord> records;
+    private TimesheetIndex index;
+    private List<EmployeeSheet> employeeSheets;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        DataWeaverProperties properties = new DataWeaverProperties();
+        properties.getCache().setEnabled(false);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ColumnMapping columnMapping = new ColumnMapping(properties);
+        streamingReader = new StreamingTimesheetReader(columnMapping);
+        workbookReader = new WorkbookTimesheetReader(columnMapping);
+        delimitedReader = new DelimitedTimesheetReader(columnMapping);
+        sheetBuilder = new EmployeeSheetBuilder(new WorkCalendar(properties));
+        PipelineMetrics pipelineMetrics = new PipelineMetrics(meterRegistry);
+        ProcessingLimiter processingLimiter = new ProcessingLimiter(properties, meterRegistry);
+        xlsxWriter = new XlsxReportWriter(properties, sheetBuilder, processingLimiter, pipelineMetrics);
+        service = new DataWeaverService(properties, streamingReader, workbookReader, delimitedReader,
+            new HoursRounding(properties), List.of(xlsxWriter, new CsvBundleReportWriter(properties, sheetBuilder),
+                new JsonReportWriter(sheetBuilder, new ObjectMapper())),
+            new ResultCache(properties, meterRegistry), pipelineMetrics,
+            new UploadBudget(properties, meterRegistry),
+            new UploadInspector(properties, streamingReader, delimitedReader), new AdmissionControl(properties, meterRegistry),
+            processingLimiter, new MultipartProperties());
+
+        SyntheticTimesheet timesheet = new SyntheticTimesheet()
+            .employees(employees)
+            .days(days)
+            .entriesPerDay(entriesPerDay)
+            .columnOrder(columnOrder);
+        upload = timesheet.toXlsx();
+        csvUpload = timesheet.toDelimited(',');
+        csvFile = Files.createTempFile("benchmark", ".csv");
+        Files.write(csvFile, csvUpload);
+
+        records = new ArrayList<>();
+        streamingReader.read(new ByteArrayInputStream(upload), records::add);
+        index = groupEntries();
+        employeeSheets = buildEmployeeSheets();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        xlsxWriter.shutdown();
+        Files.deleteIfExists(csvFile);
+    }
+
+    @Benchmark
+    public void parseStreaming(Blackhole blackhole) throws IOException {
+        streamingReader.read(new ByteArrayInputStream(upload), blackhole::consume);
+    }
+
+    @Benchmark
+    public void parseWorkbook(Blackhole blackhole) throws IOException {
+        workbookReader.read(new ByteArrayInputStream(upload), blackhole::consume);
+    }
+
+    /** The same rows as {@link #parseStreaming} from CSV text. */
+    @Benchmark
+    public void parseCsv(Blackhole blackhole) throws IOException {
+        delimitedReader.read(new ByteArrayInputStream(csvUpload), UploadFormat.CSV, blackhole::consume);
+    }
+
+    /** CSV read from a memory-mapped file, as spooled job and batch uploads are. */
+    @Benchmark
+    public void parseCsvMapped(Blackhole blackhole) throws IOException {
+        delimitedReader.read(csvFile, UploadFormat.CSV, blackhole::consume);
+    }
+
+    /** Grouping of already parsed rows by employee and day. */
+    @Benchmark
+    public TimesheetIndex groupEntries() {
+        TimesheetIndex grouped = new TimesheetIndex();
+        for (TimesheetRecord record: records) {
+            service.addToIndex(grouped, record);
+        }
+        return grouped;
+    }
+
+    /** Per-person row building, single-threaded. */
+    @Benchmark
+    public List<EmployeeSheet> buildEmployeeSheets() {
+        List<SheetPlan> plans = sheetBuilder.plan(index, index.getFirstDay(), index.getLastDay(),
+            SheetLayout.MONTHLY, new SheetNames());
+        List<EmployeeSheet> built = new ArrayList<>();
+        for (SheetPlan plan: plans) {
+            built.add(sheetBuilder.build(plan));
+        }
+        return built;
+    }
+
+    /** Writing built rows and their styles into an SXSSF workbook, without column sizing. */
+    @Benchmark
+    public int assembleStyledSheets() throws IOException {
+        return assemble(null);
+    }
+
+    /** {@link #assembleStyledSheets()} plus column sizing; subtract to get the sizing cost. */
+    @Benchmark
+    public int assembleAndSizeFast() throws IOException {
+        return assemble(ColumnSizing.FAST);
+    }
+
+    @Benchmark
+    public int assembleAndSizeExact() throws IOException {
+        return assemble(ColumnSizing.EXACT);
+    }
+
+    @Benchmark
+    public void serialize(SerializationState state) throws IOException {
+        state.workbook.write(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void generateExcel() throws IOException {
+        TimesheetIndex read = service.readTimesheet(new ByteArrayInputStream(upload));
+        service.writeReport(read, new GenerationOptions(), OutputStream.nullOutputStream());
+    }
+
+    /** The CSV bundle of already grouped entries; sheet building and CSV writing only. */
+    @Benchmark
+    public void writeCsvBundle() throws IOException {
+        writeReport(OutputFormat.CSV);
+    }
+
+    @Benchmark
+    public void writeJson() throws IOException {
+        writeReport(OutputFormat.JSON);
+    }
+
+    private void writeReport(OutputFormat format) throws IOException {
+        GenerationOptions options = new GenerationOptions();
+        options.setFormat(format);
+        service.writeReport(index, options, OutputStream.nullOutputStream());
+    }
+
+    private int assemble(ColumnSizing columnSizing) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        try {
+            assembleInto(workbook, columnSizing);
+            return workbook.getNumberOfSheets();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private void assembleInto(SXSSFWorkbook workbook, ColumnSizing columnSizing) {
+        WorkbookStyleRegistry styles = new WorkbookStyleRegistry(workbook);
+        XlsxReportWriter.DayRowStyles rowStyles = new XlsxReportWriter.DayRowStyles(styles);
+        String[] columns = EmployeeSheetBuilder.COLUMNS;
+        for (EmployeeSheet employeeSheet: employeeSheets) {
+            SXSSFSheet sheet = workbook.createSheet(employeeSheet.getSheetName());
+            ColumnWidthEstimator widths = employeeSheet.getWidths();
+            xlsxWriter.startSheet(sheet, columns, styles, columnSizing == null ? ColumnSizing.FAST : columnSizing, widths);
+            xlsxWriter.addEachPersonSheetData(rowStyles, sheet, employeeSheet, columns.length);
+            if (columnSizing != null) {
+                xlsxWriter.fitColumnContent(columns.length, sheet, columnSizing, widths);
+            }
+        }
+    }
+
+    /**
+     * A fully assembled workbook for each serialize call, since a workbook
+     * can only be written once.
+     */
+    @State(Scope.Thread)
+    public static class SerializationState {
+
+        SXSSFWorkbook workbook;
+
+        @Setup(Level.Invocation)
+        public void assemble(GenerateExcelBenchmark benchmark) {
+            workbook = new SXSSFWorkbook(100);
+            benchmark.assembleInto(workbook, ColumnSizing.FAST);
+        }
+
+        @TearDown(Level.Invocation)
+        public void dispose() throws IOException {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+}
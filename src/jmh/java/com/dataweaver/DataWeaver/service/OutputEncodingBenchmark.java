@@ -0,0 +1,173 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.dto.GenerationOptions;
+import com.dataweaver.DataWeaver.model.OutputFormat;
+import com.dataweaver.DataWeaver.model.TimesheetIndex;
+import com.dataweaver.DataWeaver.reader.ColumnMapping;
+import com.dataweaver.DataWeaver.reader.DelimitedTimesheetReader;
+import com.dataweaver.DataWeaver.reader.HoursRounding;
+import com.dataweaver.DataWeaver.reader.StreamingTimesheetReader;
+import com.dataweaver.DataWeaver.reader.WorkbookTimesheetReader;
+import com.dataweaver.DataWeaver.support.SyntheticTimesheet;
+import com.dataweaver.DataWeaver.writer.EmployeeSheetBuilder;
+import com.dataweaver.DataWeaver.writer.WorkCalendar;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Times writing the XLSX and CSV bundle outputs of already grouped entries
+ * for each combination of {@code data-weaver.output.shared-strings} and
+ * {@code data-weaver.output.compression-level}. The size of the output is
+ * reported next to the times as the {@code outputBytes} secondary result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputEncodingBenchmark {
+
+    @Param({"50", "300", "1000"})
+    public int employees;
+
+    @Param({"false", "true"})
+    public boolean sharedStrings;
+
+    @Param({"-1", "1", "9"})
+    public int compressionLevel;
+
+    private DataWeaverService service;
+    private XlsxReportWriter xlsxWriter;
+    private TimesheetIndex index;
+
+    /**
+     * The size of the output, reported as the {@code outputBytes} secondary
+     * result. JMH sums event counters over the measured iterations, so it
+     * is only recorded in the first of them; every invocation of a trial
+     * writes the same output.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class OutputSize {
+
+        public long outputBytes;
+        private boolean recording;
+        private boolean recorded;
+
+        @Setup(Level.Iteration)
+        public void startIteration(IterationParams iteration) {
+            recording = !recorded && iteration.getType() == IterationType.MEASUREMENT;
+        }
+
+        @TearDown(Level.Iteration)
+        public void endIteration() {
+            recorded |= recording;
+        }
+
+        void record(long bytes) {
+            if (recording) {
+                outputBytes = bytes;
+            }
+        }
+
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        DataWeaverProperties properties = new DataWeaverProperties();
+        properties.getCache().setEnabled(false);
+        properties.getOutput().setSharedStrings(sharedStrings);
+        properties.getOutput().setCompressionLevel(compressionLevel);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ColumnMapping columnMapping = new ColumnMapping(properties);
+        EmployeeSheetBuilder sheetBuilder = new EmployeeSheetBuilder(new WorkCalendar(properties));
+        PipelineMetrics pipelineMetrics = new PipelineMetrics(meterRegistry);
+        ProcessingLimiter processingLimiter = new ProcessingLimiter(properties, meterRegistry);
+        xlsxWriter = new XlsxReportWriter(properties, sheetBuilder, processingLimiter, pipelineMetrics);
+        StreamingTimesheetReader streamingReader = new StreamingTimesheetReader(columnMapping);
+        DelimitedTimesheetReader delimitedReader = new DelimitedTimesheetReader(columnMapping);
+        service = new DataWeaverService(properties, streamingReader,
+            new WorkbookTimesheetReader(columnMapping), delimitedReader,
+            new HoursRounding(properties), List.of(xlsxWriter, new CsvBundleReportWriter(properties, sheetBuilder),
+                new JsonReportWriter(sheetBuilder, new ObjectMapper())),
+            new ResultCache(properties, meterRegistry), pipelineMetrics,
+            new UploadBudget(properties, meterRegistry),
+            new UploadInspector(properties, streamingReader, delimitedReader), new AdmissionControl(properties, meterRegistry),
+            processingLimiter, new MultipartProperties());
+
+        byte[] upload = new SyntheticTimesheet()
+            .employees(employees)
+            .entriesPerDay(3)
+            .toXlsx();
+        index = service.readTimesheet(new ByteArrayInputStream(upload));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        xlsxWriter.shutdown();
+    }
+
+    @Benchmark
+    public long writeXlsx(OutputSize outputSize) throws IOException {
+        return writeReport(OutputFormat.XLSX, outputSize);
+    }
+
+    /** Only affected by the compression level. */
+    @Benchmark
+    public long writeCsvBundle(OutputSize outputSize) throws IOException {
+        return writeReport(OutputFormat.CSV, outputSize);
+    }
+
+    private long writeReport(OutputFormat format, OutputSize outputSize) throws IOException {
+        GenerationOptions options = new GenerationOptions();
+        options.setFormat(format);
+        ByteCounter counter = new ByteCounter();
+        service.writeReport(index, options, counter);
+        outputSize.record(counter.bytes);
+        return counter.bytes;
+    }
+
+    private static class ByteCounter extends OutputStream {
+
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+
+    }
+
+}
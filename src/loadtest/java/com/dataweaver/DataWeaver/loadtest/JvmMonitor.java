@@ -0,0 +1,153 @@
+package com.dataweaver.DataWeaver.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import lombok.Getter;
+
+/**
+ * Watches the heap and garbage collector of this JVM, which the application
+ * under test runs in. Heap use is sampled every 50ms and every collection is
+ * recorded from the collectors' notifications, with the heap left after it.
+ * Events of concurrent collectors, such as ZGC or Shenandoah cycles, are
+ * recorded but not counted as pauses.
+ */
+class JvmMonitor implements AutoCloseable {
+
+    private static final long SAMPLE_MILLIS = 50;
+
+    @Getter
+    static class GcEvent {
+
+        private final long offsetNanos;
+        private final String collector;
+        private final String cause;
+        private final long durationMillis;
+        private final long heapAfter;
+        private final boolean pause;
+
+        GcEvent(long offsetNanos, String collector, String cause, long durationMillis, long heapAfter) {
+            this.offsetNanos = offsetNanos;
+            this.collector = collector;
+            this.cause = cause;
+            this.durationMillis = durationMillis;
+            this.heapAfter = heapAfter;
+            this.pause = !collector.contains("Cycles") && !collector.contains("Concurrent");
+        }
+
+    }
+
+    private final Set<String> heapPools = new HashSet<>();
+    private final List<Runnable> unregister = new ArrayList<>();
+    private final Thread sampler;
+
+    private volatile long start = System.nanoTime();
+    private volatile long intervalNanos = Long.MAX_VALUE;
+    private final List<GcEvent> events = new ArrayList<>();
+    private final List<Long> heapUsedMax = new ArrayList<>();
+    private long heapCommittedMax;
+
+    JvmMonitor() {
+        for (MemoryPoolMXBean pool: ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool.getName());
+            }
+        }
+        for (GarbageCollectorMXBean collector: ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                NotificationListener listener = (notification, handback) -> {
+                    if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                        record(GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()));
+                    }
+                };
+                emitter.addNotificationListener(listener, null, null);
+                unregister.add(() -> {
+                    try {
+                        emitter.removeNotificationListener(listener);
+                    } catch (Exception e) {
+                        // already gone
+                    }
+                });
+            }
+        }
+        sampler = new Thread(this::sample, "loadtest-heap-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    /** Forgets everything recorded so far and buckets what follows by {@code intervalNanos}. */
+    synchronized void begin(long intervalNanos) {
+        events.clear();
+        heapUsedMax.clear();
+        heapCommittedMax = 0;
+        this.intervalNanos = intervalNanos;
+        this.start = System.nanoTime();
+    }
+
+    synchronized List<GcEvent> events() {
+        return new ArrayList<>(events);
+    }
+
+    /** Highest heap use sampled in each interval since {@link #begin}. */
+    synchronized List<Long> heapUsedMax() {
+        return new ArrayList<>(heapUsedMax);
+    }
+
+    synchronized long heapCommittedMax() {
+        return heapCommittedMax;
+    }
+
+    private void sample() {
+        while (!Thread.currentThread().isInterrupted()) {
+            MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            synchronized (this) {
+                int bucket = (int) ((System.nanoTime() - start) / intervalNanos);
+                while (heapUsedMax.size() <= bucket) {
+                    heapUsedMax.add(0L);
+                }
+                heapUsedMax.set(bucket, Math.max(heapUsedMax.get(bucket), heap.getUsed()));
+                heapCommittedMax = Math.max(heapCommittedMax, heap.getCommitted());
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(SAMPLE_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void record(GarbageCollectionNotificationInfo info) {
+        long heapAfter = 0;
+        for (Map.Entry<String, MemoryUsage> pool: info.getGcInfo().getMemoryUsageAfterGc().entrySet()) {
+            if (heapPools.contains(pool.getKey())) {
+                heapAfter += pool.getValue().getUsed();
+            }
+        }
+        synchronized (this) {
+            events.add(new GcEvent(System.nanoTime() - start, info.getGcName(), info.getGcCause(),
+                info.getGcInfo().getDuration(), heapAfter));
+        }
+    }
+
+    @Override
+    public void close() {
+        sampler.interrupt();
+        unregister.forEach(Runnable::run);
+    }
+
+}
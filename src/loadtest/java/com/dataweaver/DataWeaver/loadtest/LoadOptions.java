@@ -0,0 +1,109 @@
+package com.dataweaver.DataWeaver.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import com.dataweaver.DataWeaver.model.UploadFormat;
+
+import lombok.Getter;
+
+/**
+ * Settings of a load test run, parsed from {@code key=value} arguments.
+ * Arguments starting with {@code --} are passed on to the application,
+ * e.g. {@code --data-weaver.admission.max-wait=5s}.
+ */
+@Getter
+class LoadOptions {
+
+    enum Model {
+        /** A fixed number of clients, each sending its next request once the last one is answered. */
+        CLOSED,
+        /** Requests arrive at a fixed rate whether or not earlier ones have been answered. */
+        OPEN
+    }
+
+    private Model model = Model.CLOSED;
+    private int clients = 4;
+    private double rate = 1;
+    private int maxInFlight = 64;
+    private Duration thinkTime = Duration.ZERO;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration interval = Duration.ofSeconds(10);
+    private Duration timeout = Duration.ofMinutes(5);
+    private String endpoint = "/data-weaver/generate-excel";
+    private String query = "";
+    private UploadFormat upload = UploadFormat.XLSX;
+    private int employees = 300;
+    private int days = 31;
+    private int entriesPerDay = 3;
+    private Path report = Path.of("target", "loadtest-result.json");
+    private String label = "";
+    private final List<String> applicationArgs = new ArrayList<>();
+
+    static LoadOptions parse(String[] args) {
+        LoadOptions options = new LoadOptions();
+        for (String arg: args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            if (arg.startsWith("--")) {
+                options.applicationArgs.add(arg);
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value but got '" + arg + "'");
+            }
+            options.set(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        options.check();
+        return options;
+    }
+
+    private void set(String key, String value) {
+        switch (key) {
+            case "model" -> model = Model.valueOf(value.toUpperCase(Locale.ROOT));
+            case "clients" -> clients = Integer.parseInt(value);
+            case "rate" -> rate = Double.parseDouble(value);
+            case "max-in-flight" -> maxInFlight = Integer.parseInt(value);
+            case "think-time" -> thinkTime = DurationStyle.detectAndParse(value);
+            case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+            case "duration" -> duration = DurationStyle.detectAndParse(value);
+            case "interval" -> interval = DurationStyle.detectAndParse(value);
+            case "timeout" -> timeout = DurationStyle.detectAndParse(value);
+            case "endpoint" -> endpoint = value.startsWith("/") ? value : "/" + value;
+            case "query" -> query = value;
+            case "upload" -> upload = UploadFormat.valueOf(value.toUpperCase(Locale.ROOT));
+            case "employees" -> employees = Integer.parseInt(value);
+            case "days" -> days = Integer.parseInt(value);
+            case "entries-per-day" -> entriesPerDay = Integer.parseInt(value);
+            case "report" -> report = Path.of(value);
+            case "label" -> label = value;
+            default -> throw new IllegalArgumentException("Unknown load test option '" + key + "'");
+        }
+    }
+
+    private void check() {
+        if (clients <= 0 || maxInFlight <= 0 || rate <= 0) {
+            throw new IllegalArgumentException("clients, max-in-flight and rate must be positive");
+        }
+        if (duration.isZero() || duration.isNegative() || interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("duration and interval must be positive");
+        }
+        if (employees <= 0 || days <= 0 || entriesPerDay <= 0) {
+            throw new IllegalArgumentException("employees, days and entries-per-day must be positive");
+        }
+    }
+
+    /** Whether an application property was set with a {@code --key=value} argument. */
+    boolean hasApplicationArg(String key) {
+        return applicationArgs.stream().anyMatch(arg -> arg.startsWith("--" + key + "="));
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.dataweaver.DataWeaver.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Getter;
+
+/**
+ * The requests sent in one phase of a run, warm-up or measurement. A
+ * request's latency runs from when it was due to be sent, so in the open
+ * model time spent waiting for a free connection or client thread counts
+ * against the service rather than being left out.
+ */
+class LoadPhase {
+
+    /** Status of requests that failed without a response, such as on a timeout. */
+    static final int NO_RESPONSE = -1;
+
+    @Getter
+    static class Sample {
+
+        private final long startNanos;
+        private final long endNanos;
+        private final int status;
+        private final long responseBytes;
+        private final String error;
+
+        Sample(long startNanos, long endNanos, int status, long responseBytes, String error) {
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+            this.status = status;
+            this.responseBytes = responseBytes;
+            this.error = error;
+        }
+
+        long latencyNanos() {
+            return endNanos - startNanos;
+        }
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+    }
+
+    @Getter
+    private final long startNanos = System.nanoTime();
+    private final List<Sample> samples = new ArrayList<>();
+    private final AtomicInteger dropped = new AtomicInteger();
+
+    /** Records a request due at {@code dueNanos}, answered or failed just now. */
+    void record(long dueNanos, int status, long responseBytes, String error) {
+        Sample sample = new Sample(dueNanos - startNanos, System.nanoTime() - startNanos, status, responseBytes, error);
+        synchronized (samples) {
+            samples.add(sample);
+        }
+    }
+
+    /** Counts an open model arrival that was not sent because max-in-flight requests were outstanding. */
+    void drop() {
+        dropped.incrementAndGet();
+    }
+
+    List<Sample> samples() {
+        synchronized (samples) {
+            return new ArrayList<>(samples);
+        }
+    }
+
+    int dropped() {
+        return dropped.get();
+    }
+
+}
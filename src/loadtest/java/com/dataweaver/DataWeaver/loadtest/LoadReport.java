@@ -0,0 +1,228 @@
+package com.dataweaver.DataWeaver.loadtest;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * The measured period of a run as JSON, for comparing builds: throughput,
+ * latency percentiles of successful requests, heap high-water marks, GC
+ * pauses and CPU, for the whole period and for each interval of it.
+ * Latencies and pauses are in milliseconds, sizes in bytes.
+ */
+class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private final ObjectNode root;
+    private final String summary;
+
+    LoadReport(LoadOptions options, int uploadRows, int uploadBytes, LoadPhase phase, long elapsedNanos,
+            long cpuNanos, JvmMonitor monitor) {
+        ObjectMapper mapper = new ObjectMapper();
+        root = mapper.createObjectNode();
+        root.put("label", options.getLabel());
+        root.put("timestamp", Instant.now().toString());
+
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        ObjectNode environment = root.putObject("environment");
+        environment.put("javaVersion", System.getProperty("java.version"));
+        environment.put("vm", runtime.getVmName());
+        environment.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        environment.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        ArrayNode collectors = environment.putArray("collectors");
+        for (GarbageCollectorMXBean collector: ManagementFactory.getGarbageCollectorMXBeans()) {
+            collectors.add(collector.getName());
+        }
+        ArrayNode jvmArgs = environment.putArray("jvmArgs");
+        runtime.getInputArguments().forEach(jvmArgs::add);
+
+        ObjectNode settings = root.putObject("options");
+        settings.put("model", options.getModel().name());
+        if (options.getModel() == LoadOptions.Model.CLOSED) {
+            settings.put("clients", options.getClients());
+            settings.put("thinkTimeMs", options.getThinkTime().toMillis());
+        } else {
+            settings.put("rate", options.getRate());
+            settings.put("maxInFlight", options.getMaxInFlight());
+        }
+        settings.put("warmupSeconds", options.getWarmup().toSeconds());
+        settings.put("durationSeconds", options.getDuration().toSeconds());
+        settings.put("endpoint", options.getEndpoint());
+        settings.put("query", options.getQuery());
+        ArrayNode applicationArgs = settings.putArray("applicationArgs");
+        options.getApplicationArgs().forEach(applicationArgs::add);
+
+        ObjectNode upload = root.putObject("upload");
+        upload.put("format", options.getUpload().name());
+        upload.put("employees", options.getEmployees());
+        upload.put("days", options.getDays());
+        upload.put("entriesPerDay", options.getEntriesPerDay());
+        upload.put("rows", uploadRows);
+        upload.put("bytes", uploadBytes);
+
+        List<LoadPhase.Sample> samples = phase.samples();
+        List<JvmMonitor.GcEvent> events = monitor.events();
+        double seconds = elapsedNanos / 1e9;
+        long ok = samples.stream().filter(LoadPhase.Sample::ok).count();
+        long responseBytes = samples.stream().mapToLong(LoadPhase.Sample::getResponseBytes).sum();
+
+        ObjectNode requests = root.putObject("requests");
+        requests.put("sent", samples.size());
+        requests.put("ok", ok);
+        requests.put("failed", samples.size() - ok);
+        requests.put("dropped", phase.dropped());
+        Map<String, Integer> byStatus = new TreeMap<>();
+        for (LoadPhase.Sample sample: samples) {
+            String key = sample.getStatus() == LoadPhase.NO_RESPONSE ? sample.getError() : String.valueOf(sample.getStatus());
+            byStatus.merge(key, 1, Integer::sum);
+        }
+        ObjectNode statuses = requests.putObject("byStatus");
+        byStatus.forEach(statuses::put);
+
+        ObjectNode throughput = root.putObject("throughput");
+        throughput.put("elapsedSeconds", round(seconds));
+        throughput.put("requestsPerSecond", round(ok / seconds));
+        throughput.put("rowsPerSecond", round(ok * uploadRows / seconds));
+        throughput.put("uploadBytesPerSecond", Math.round(ok * uploadBytes / seconds));
+        throughput.put("responseBytesPerSecond", Math.round(responseBytes / seconds));
+
+        long[] latencies = latencies(samples);
+        putLatencies(root.putObject("latencyMs"), latencies);
+
+        List<Long> heapUsedMax = monitor.heapUsedMax();
+        ObjectNode heap = root.putObject("heap");
+        heap.put("usedMaxBytes", heapUsedMax.stream().mapToLong(Long::longValue).max().orElse(0));
+        heap.put("committedMaxBytes", monitor.heapCommittedMax());
+        heap.put("afterGcMaxBytes", events.stream().mapToLong(JvmMonitor.GcEvent::getHeapAfter).max().orElse(0));
+        // a live set growing from first to last collection over a soak run suggests a leak
+        heap.put("afterGcFirstBytes", events.isEmpty() ? 0 : events.get(0).getHeapAfter());
+        heap.put("afterGcLastBytes", events.isEmpty() ? 0 : events.get(events.size() - 1).getHeapAfter());
+
+        long[] pauses = events.stream().filter(JvmMonitor.GcEvent::isPause)
+            .mapToLong(JvmMonitor.GcEvent::getDurationMillis).sorted().toArray();
+        long pauseTotal = Arrays.stream(pauses).sum();
+        ObjectNode gc = root.putObject("gc");
+        gc.put("pauses", pauses.length);
+        gc.put("pauseTotalMs", pauseTotal);
+        gc.put("pauseMaxMs", pauses.length == 0 ? 0 : pauses[pauses.length - 1]);
+        gc.put("pauseP99Ms", percentile(pauses, 99));
+        gc.put("pauseTimeRatio", round(pauseTotal / 1000.0 / seconds));
+        Map<String, long[]> byCollector = new TreeMap<>();
+        for (JvmMonitor.GcEvent event: events) {
+            long[] totals = byCollector.computeIfAbsent(event.getCollector(), name -> new long[2]);
+            totals[0]++;
+            totals[1] += event.getDurationMillis();
+        }
+        ObjectNode collectorTotals = gc.putObject("byCollector");
+        byCollector.forEach((name, totals) -> collectorTotals.putObject(name)
+            .put("count", totals[0])
+            .put("totalMs", totals[1]));
+
+        ObjectNode cpu = root.putObject("cpu");
+        cpu.put("processSeconds", cpuNanos < 0 ? -1 : round(cpuNanos / 1e9));
+        cpu.put("utilization", cpuNanos < 0 ? -1
+            : round(cpuNanos / (double) elapsedNanos / Runtime.getRuntime().availableProcessors()));
+
+        putIntervals(root.putArray("intervals"), options.getInterval().toNanos(), elapsedNanos, samples, events,
+            heapUsedMax);
+
+        summary = String.format("%d ok, %d failed, %d dropped in %.1fs: %.2f req/s, p50 %.0fms, p99 %.0fms, "
+                + "heap max %dMB, %d GC pauses (max %dms, total %dms)",
+            ok, samples.size() - ok, phase.dropped(), seconds, ok / seconds,
+            percentile(latencies, 50) / 1e6, percentile(latencies, 99) / 1e6,
+            heap.get("usedMaxBytes").asLong() >> 20, pauses.length, gc.get("pauseMaxMs").asLong(), pauseTotal);
+    }
+
+    void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), root);
+    }
+
+    String summary() {
+        return summary;
+    }
+
+    private static void putIntervals(ArrayNode intervals, long intervalNanos, long elapsedNanos,
+            List<LoadPhase.Sample> samples, List<JvmMonitor.GcEvent> events, List<Long> heapUsedMax) {
+        int count = (int) ((elapsedNanos + intervalNanos - 1) / intervalNanos);
+        List<List<LoadPhase.Sample>> samplesByInterval = new ArrayList<>();
+        List<List<JvmMonitor.GcEvent>> eventsByInterval = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            samplesByInterval.add(new ArrayList<>());
+            eventsByInterval.add(new ArrayList<>());
+        }
+        for (LoadPhase.Sample sample: samples) {
+            samplesByInterval.get(bucket(sample.getEndNanos(), intervalNanos, count)).add(sample);
+        }
+        for (JvmMonitor.GcEvent event: events) {
+            eventsByInterval.get(bucket(event.getOffsetNanos(), intervalNanos, count)).add(event);
+        }
+        double intervalSeconds = intervalNanos / 1e9;
+        for (int i = 0; i < count; i++) {
+            List<LoadPhase.Sample> intervalSamples = samplesByInterval.get(i);
+            long ok = intervalSamples.stream().filter(LoadPhase.Sample::ok).count();
+            long[] latencies = latencies(intervalSamples);
+            ObjectNode interval = intervals.addObject();
+            interval.put("startSeconds", round(i * intervalSeconds));
+            interval.put("ok", ok);
+            interval.put("failed", intervalSamples.size() - ok);
+            interval.put("requestsPerSecond", round(ok / intervalSeconds));
+            interval.put("p50Ms", round(percentile(latencies, 50) / 1e6));
+            interval.put("p99Ms", round(percentile(latencies, 99) / 1e6));
+            interval.put("heapUsedMaxBytes", i < heapUsedMax.size() ? heapUsedMax.get(i) : 0);
+            interval.put("heapAfterGcMaxBytes", eventsByInterval.get(i).stream()
+                .mapToLong(JvmMonitor.GcEvent::getHeapAfter).max().orElse(0));
+            interval.put("gcPauseMs", eventsByInterval.get(i).stream().filter(JvmMonitor.GcEvent::isPause)
+                .mapToLong(JvmMonitor.GcEvent::getDurationMillis).sum());
+        }
+    }
+
+    private static int bucket(long offsetNanos, long intervalNanos, int count) {
+        return (int) Math.min(count - 1, Math.max(0, offsetNanos / intervalNanos));
+    }
+
+    private static long[] latencies(List<LoadPhase.Sample> samples) {
+        return samples.stream().filter(LoadPhase.Sample::ok).mapToLong(LoadPhase.Sample::latencyNanos).sorted().toArray();
+    }
+
+    private static void putLatencies(ObjectNode node, long[] sortedNanos) {
+        node.put("mean", round(Arrays.stream(sortedNanos).average().orElse(0) / 1e6));
+        for (double percentile: PERCENTILES) {
+            String name = "p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile)
+                : String.valueOf(percentile).replace(".", ""));
+            node.put(name, round(percentile(sortedNanos, percentile) / 1e6));
+        }
+        node.put("max", round((sortedNanos.length == 0 ? 0 : sortedNanos[sortedNanos.length - 1]) / 1e6));
+    }
+
+    /** Nearest-rank percentile of sorted values; 0 when there are none. */
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+}
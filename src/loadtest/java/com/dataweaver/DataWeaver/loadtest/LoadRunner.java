@@ -0,0 +1,216 @@
+package com.dataweaver.DataWeaver.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.dataweaver.DataWeaver.DataWeaverApplication;
+import com.dataweaver.DataWeaver.model.UploadFormat;
+import com.dataweaver.DataWeaver.support.SyntheticTimesheet;
+
+/**
+ * Boots the application on a random local port and sends it the same
+ * synthetic upload over HTTP, from a number of clients or at a fixed rate,
+ * for a warm-up and then a measured period. The measured period is written
+ * up as JSON by {@link LoadReport}. Run with {@code mvn -Ploadtest verify};
+ * see the loadtest profile in pom.xml and {@link LoadOptions} for settings.
+ * <p>
+ * Clients and application share this JVM, so heap and GC figures include
+ * the clients; they hold only the upload and a copy buffer per request.
+ * The result cache is off unless set with
+ * {@code --data-weaver.cache.enabled}, as every request repeats the upload.
+ */
+public class LoadRunner {
+
+    private static final String BOUNDARY = "dataweaver-loadtest-boundary";
+
+    private final LoadOptions options;
+    private final HttpClient client;
+    private final URI uri;
+    private final byte[] body;
+
+    LoadRunner(LoadOptions options, int port, byte[] upload) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        this.uri = URI.create("http://localhost:" + port + options.getEndpoint()
+            + (options.getQuery().isEmpty() ? "" : "?" + options.getQuery()));
+        this.body = multipart(upload, options.getUpload());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        SyntheticTimesheet timesheet = new SyntheticTimesheet()
+            .employees(options.getEmployees())
+            .days(options.getDays())
+            .entriesPerDay(options.getEntriesPerDay());
+        byte[] upload = switch (options.getUpload()) {
+            case XLSX -> timesheet.toXlsx();
+            case CSV -> timesheet.toDelimited(',');
+            case TSV -> timesheet.toDelimited('\t');
+        };
+
+        try (JvmMonitor monitor = new JvmMonitor(); ConfigurableApplicationContext context = start(options)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadRunner runner = new LoadRunner(options, port, upload);
+            System.out.println("Sending " + timesheet.rowCount() + " rows (" + upload.length + " bytes) to " + runner.uri);
+            if (!options.getWarmup().isZero()) {
+                System.out.println("Warming up for " + options.getWarmup().toSeconds() + "s");
+                runner.run(options.getWarmup());
+            }
+
+            System.out.println("Measuring for " + options.getDuration().toSeconds() + "s");
+            monitor.begin(options.getInterval().toNanos());
+            long cpuBefore = processCpuNanos();
+            LoadPhase phase = runner.run(options.getDuration());
+            long elapsedNanos = Math.max(options.getDuration().toNanos(), System.nanoTime() - phase.getStartNanos());
+            long cpuNanos = cpuBefore < 0 ? -1 : processCpuNanos() - cpuBefore;
+
+            LoadReport report = new LoadReport(options, timesheet.rowCount(), upload.length, phase, elapsedNanos,
+                cpuNanos, monitor);
+            report.write(options.getReport());
+            System.out.println(report.summary());
+            System.out.println("Report written to " + options.getReport().toAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext start(LoadOptions options) {
+        List<String> args = new ArrayList<>();
+        if (!options.hasApplicationArg("server.port")) {
+            args.add("--server.port=0");
+        }
+        if (!options.hasApplicationArg("data-weaver.cache.enabled")) {
+            args.add("--data-weaver.cache.enabled=false");
+        }
+        args.addAll(options.getApplicationArgs());
+        return new SpringApplicationBuilder(DataWeaverApplication.class).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Sends requests for {@code length} and waits for the last answer, or
+     * for the request timeout past the end of the period at most.
+     */
+    LoadPhase run(Duration length) throws InterruptedException {
+        LoadPhase phase = new LoadPhase();
+        long end = phase.getStartNanos() + length.toNanos();
+        ExecutorService senders;
+        if (options.getModel() == LoadOptions.Model.CLOSED) {
+            senders = Executors.newFixedThreadPool(options.getClients(), clientThreads());
+            for (int i = 0; i < options.getClients(); i++) {
+                senders.execute(() -> {
+                    while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                        send(phase, System.nanoTime());
+                        if (!options.getThinkTime().isZero()) {
+                            LockSupport.parkNanos(options.getThinkTime().toNanos());
+                        }
+                    }
+                });
+            }
+        } else {
+            senders = Executors.newCachedThreadPool(clientThreads());
+            Semaphore inFlight = new Semaphore(options.getMaxInFlight());
+            long period = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / options.getRate()));
+            for (long due = phase.getStartNanos(); due < end; due += period) {
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!inFlight.tryAcquire()) {
+                    phase.drop();
+                    continue;
+                }
+                long sendAt = due;
+                senders.execute(() -> {
+                    try {
+                        send(phase, sendAt);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        senders.shutdown();
+        if (!senders.awaitTermination(length.plus(options.getTimeout()).toNanos(), TimeUnit.NANOSECONDS)) {
+            senders.shutdownNow();
+        }
+        return phase;
+    }
+
+    private void send(LoadPhase phase, long dueNanos) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+            .timeout(options.getTimeout())
+            .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+        try {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            long responseBytes;
+            try (InputStream responseBody = response.body()) {
+                responseBytes = responseBody.transferTo(OutputStream.nullOutputStream());
+            }
+            phase.record(dueNanos, response.statusCode(), responseBytes, null);
+        } catch (IOException e) {
+            phase.record(dueNanos, LoadPhase.NO_RESPONSE, 0, e.getClass().getSimpleName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] multipart(byte[] upload, UploadFormat format) {
+        String contentType = switch (format) {
+            case XLSX -> "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+            case CSV -> "text/csv";
+            case TSV -> "text/tab-separated-values";
+        };
+        String head = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"timesheet."
+            + format.name().toLowerCase(Locale.ROOT) + "\"\r\n"
+            + "Content-Type: " + contentType + "\r\n\r\n";
+        ByteArrayOutputStream body = new ByteArrayOutputStream(upload.length + 256);
+        body.writeBytes(head.getBytes(StandardCharsets.US_ASCII));
+        body.writeBytes(upload);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return body.toByteArray();
+    }
+
+    private static ThreadFactory clientThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-client-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static long processCpuNanos() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return os.getProcessCpuTime();
+        }
+        return -1;
+    }
+
+}
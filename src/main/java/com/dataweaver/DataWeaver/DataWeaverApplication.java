@@ -2,6 +2,8 @@ package com.dataweaver.DataWeaver;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
@@ -14,6 +16,8 @@ import io.swagger.v3.oas.annotations.info.Info;
   )
 )
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class DataWeaverApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,8 @@
+package com.dataweaver.DataWeaver.config;
+
+public enum ColumnSizing {
+    /** Widths estimated from the longest text written to each column. */
+    FAST,
+    /** POI's autoSizeColumn, which measures every cell with AWT font metrics. */
+    EXACT
+}
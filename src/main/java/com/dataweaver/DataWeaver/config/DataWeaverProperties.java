@@ -0,0 +1,193 @@
+package com.dataweaver.DataWeaver.config;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "data-weaver")
+public class DataWeaverProperties {
+
+    private Ingestion ingestion = new Ingestion();
+    private Columns columns = new Columns();
+    private Days days = new Days();
+    private Hours hours = new Hours();
+    private Output output = new Output();
+    private Processing processing = new Processing();
+    private Jobs jobs = new Jobs();
+    private Cache cache = new Cache();
+    private Batch batch = new Batch();
+    private Uploads uploads = new Uploads();
+    private Admission admission = new Admission();
+    private Store store = new Store();
+
+    @Getter
+    @Setter
+    public static class Ingestion {
+        private IngestionMode mode = IngestionMode.STREAMING;
+    }
+
+    /**
+     * Header names accepted for each source column. A header cell matches
+     * when it equals one of the names, ignoring case and surrounding spaces.
+     */
+    @Getter
+    @Setter
+    public static class Columns {
+        private List<String> employeeName = new ArrayList<>(List.of("Emp Name"));
+        private List<String> date = new ArrayList<>(List.of("Date"));
+        private List<String> description = new ArrayList<>(List.of("Description"));
+        private List<String> taskHours = new ArrayList<>(List.of("Task Hours"));
+        private List<String> totalHours = new ArrayList<>(List.of("Total Hours"));
+    }
+
+    @Getter
+    @Setter
+    public static class Days {
+        /** Days of the week that are not worked. */
+        private Set<DayOfWeek> weekend = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+        /** Dates that are not worked, shown like weekends. */
+        private List<LocalDate> holidays = new ArrayList<>();
+        /** Title of working days, with or without entries. */
+        private String workTitle = "Development";
+        /** Description of working days without entries. */
+        private String leaveDescription = "On Leave";
+    }
+
+    @Getter
+    @Setter
+    public static class Hours {
+        /** Task hours and daily totals are rounded to a multiple of this as they are read; 0 keeps them as they are. */
+        private BigDecimal roundingIncrement = BigDecimal.ZERO;
+        private RoundingMode roundingMode = RoundingMode.HALF_UP;
+    }
+
+    @Getter
+    @Setter
+    public static class Output {
+        /** Rows kept in memory per sheet before SXSSF flushes older ones to a temp file. */
+        private int rowAccessWindowSize = 100;
+        /** Default column sizing when a request does not ask for one. */
+        private ColumnSizing columnSizing = ColumnSizing.FAST;
+        /** Default sheet layout for uploads spanning more than one month. */
+        private SheetLayout sheetLayout = SheetLayout.MONTHLY;
+        /**
+         * Writes workbook text to a shared strings table, each distinct value
+         * once, instead of inline in every cell. The table is kept in memory
+         * until the workbook is written.
+         */
+        private boolean sharedStrings = false;
+        /**
+         * Deflate level of XLSX and CSV bundle zips, from 0 (stored) to 9
+         * (smallest); -1 is the zip default, level 6.
+         */
+        private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    }
+
+    @Getter
+    @Setter
+    public static class Processing {
+        /** Worker threads shared by all requests for building employee sheets. */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        /** Uploads parsed or built into sheets at once, across requests, jobs and batches. */
+        private int maxConcurrentWorkbooks = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Getter
+    @Setter
+    public static class Jobs {
+        /** Jobs processed at the same time. */
+        private int workers = 2;
+        /** Jobs allowed to wait for a worker before submissions are rejected with 429. */
+        private int queueCapacity = 16;
+        /** Where uploads and results of background jobs are kept. */
+        private Path spoolDirectory = Path.of(System.getProperty("java.io.tmpdir"), "data-weaver-jobs");
+        /** How long a finished job and its result are kept. */
+        private Duration resultTtl = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = true;
+        /** How long a generated result is served from the cache. */
+        private Duration ttl = Duration.ofMinutes(30);
+        private DataSize heapMaxSize = DataSize.ofMegabytes(64);
+        /** Results larger than this go to the disk tier, or are not cached if it is disabled. */
+        private DataSize heapEntryMaxSize = DataSize.ofMegabytes(8);
+        private boolean diskEnabled = false;
+        private Path diskDirectory = Path.of(System.getProperty("java.io.tmpdir"), "data-weaver-cache");
+        private DataSize diskMaxSize = DataSize.ofGigabytes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        /** Files of one batch processed at the same time, and the most a request may ask for. */
+        private int parallelism = 2;
+        /** Files accepted in one batch, counting the entries of uploaded zips. */
+        private int maxFiles = 100;
+        /** Total size of the files a batch may unpack from uploaded zips. */
+        private DataSize maxExtractedSize = DataSize.ofMegabytes(512);
+        /** Where batch inputs and outputs are kept while the response is written. */
+        private Path spoolDirectory = Path.of(System.getProperty("java.io.tmpdir"), "data-weaver-batches");
+    }
+
+    @Getter
+    @Setter
+    public static class Uploads {
+        /**
+         * Upload bytes the generate-excel endpoints read and render at once.
+         * Requests that would go over it are rejected with 429.
+         */
+        private DataSize maxConcurrentSize = DataSize.ofGigabytes(1);
+        /**
+         * Where uploads larger than {@code spring.servlet.multipart.file-size-threshold}
+         * are moved to be opened as files. Keep it on the same file system as the
+         * servlet container's temp directory so the move is a rename.
+         */
+        private Path spoolDirectory = Path.of(System.getProperty("java.io.tmpdir"), "data-weaver-uploads");
+    }
+
+    /**
+     * Pre-flight inspection of uploads and the cost budget they are admitted
+     * against. Cost is counted in rows: the rows of the upload plus the day
+     * rows of the sheets it will produce, both estimated from a sample.
+     */
+    @Getter
+    @Setter
+    public static class Admission {
+        private boolean enabled = true;
+        /** Data rows read to inspect an upload. */
+        private int sampleRows = 1000;
+        /** Estimated cost of the uploads being read and rendered at once; a single larger upload is rejected with 413. */
+        private int maxConcurrentCost = 5_000_000;
+        /** Uploads allowed to wait for the budget before further ones are rejected with 429. */
+        private int maxWaiting = 16;
+        /** How long an upload waits for the budget before it is rejected with 429. */
+        private Duration maxWait = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Store {
+        /** Where the timesheet store keeps its month files. They are kept across restarts. */
+        private Path directory = Path.of("data-weaver-store");
+    }
+
+}
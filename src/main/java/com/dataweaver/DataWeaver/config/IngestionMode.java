@@ -0,0 +1,8 @@
+package com.dataweaver.DataWeaver.config;
+
+public enum IngestionMode {
+    /** Loads the whole upload into an XSSFWorkbook before reading it. */
+    WORKBOOK,
+    /** Reads the first sheet row by row with POI's event API. */
+    STREAMING
+}
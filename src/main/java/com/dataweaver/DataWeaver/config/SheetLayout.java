@@ -0,0 +1,8 @@
+package com.dataweaver.DataWeaver.config;
+
+public enum SheetLayout {
+    /** One sheet per employee per calendar month in the reported range. */
+    MONTHLY,
+    /** One sheet per employee covering the whole reported range. */
+    RANGE
+}
@@ -2,16 +2,25 @@ package com.dataweaver.DataWeaver.controller;
 
 
 import java.io.IOException;
+import java.util.List;
 
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.dataweaver.DataWeaver.dto.GenerationOptions;
+import com.dataweaver.DataWeaver.dto.UploadInspection;
+import com.dataweaver.DataWeaver.model.OutputFormat;
+import com.dataweaver.DataWeaver.service.BatchService;
 import com.dataweaver.DataWeaver.service.DataWeaverService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -23,23 +32,59 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class DataWeaverController {
 
     private DataWeaverService dataWeaverService;
+    private BatchService batchService;
 
-    public DataWeaverController(DataWeaverService dataWeaverService) {
+    public DataWeaverController(DataWeaverService dataWeaverService, BatchService batchService) {
         this.dataWeaverService = dataWeaverService;
+        this.batchService = batchService;
     }
 
     @Operation(summary = "Returns back an excel sheet as response", description = "Returns back a polished excel sheet as response by seperating our each person's monthly tasks")
     @PostMapping("/generate-excel")
-    public ResponseEntity<byte[]> generateExcel(@RequestParam("file") MultipartFile file) throws IOException {
-        byte[] outputBytes = dataWeaverService.generateExcel(file);
+    public ResponseEntity<byte[]> generateExcel(@RequestParam("file") MultipartFile file, @ParameterObject GenerationOptions options, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) throws IOException {
+        options.acceptFormat(accept);
+        OutputFormat format = dataWeaverService.resolveOptions(options).getFormat();
+        byte[] outputBytes = dataWeaverService.generateExcel(file, options);
 
 
         return ResponseEntity.ok()  
-                .header("Content-Disposition", "attachment; filename=\"output.xlsx\"")
-                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .header("Content-Disposition", "attachment; filename=\"output" + format.getExtension() + "\"")
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
                 .body(outputBytes);
     }
 
+    @Operation(summary = "Streams back an excel sheet as response", description = "Same as generate-excel, but the workbook is written straight to the response as it is generated instead of being buffered in memory first")
+    @PostMapping("/generate-excel/stream")
+    public ResponseEntity<StreamingResponseBody> streamExcel(@RequestParam("file") MultipartFile file, @ParameterObject GenerationOptions options, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) throws IOException {
+        options.acceptFormat(accept);
+        OutputFormat format = dataWeaverService.resolveOptions(options).getFormat();
+        StreamingResponseBody body = dataWeaverService.prepareExcel(file, options)::writeTo;
+
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=\"output" + format.getExtension() + "\"")
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .body(body);
+    }
+
+    @Operation(summary = "Converts many timesheets in one request", description = "Accepts several files, or zips of files, and streams back a zip with one workbook per file as each completes, plus a manifest.json reporting per-file errors")
+    @PostMapping("/generate-excel/batch")
+    public ResponseEntity<StreamingResponseBody> generateBatch(@RequestParam("files") List<MultipartFile> files, @RequestParam(value = "parallelism", required = false) Integer parallelism, @ParameterObject GenerationOptions options) throws IOException {
+        // the response is always a zip, so Accept can't choose the format of the files inside
+        BatchService.SpooledBatch batch = batchService.spool(files, parallelism, options);
+        StreamingResponseBody body = outputStream -> batchService.writeBatch(batch, outputStream);
+
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=\"output.zip\"")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
+    @Operation(summary = "Inspects an upload without processing it", description = "Reads the header and first rows of the same upload generate-excel takes, responds with 400 if they would fail, and otherwise estimates the rows, employees and processing cost of the upload and whether it would be admitted now")
+    @PostMapping("/inspect")
+    public ResponseEntity<UploadInspection> inspect(@RequestParam("file") MultipartFile file) throws IOException {
+        return ResponseEntity.ok()
+                .body(dataWeaverService.inspect(file));
+    }
 
     @Operation(summary = "Health check end point", description = "Checks whether DataWeaver application is up and healthy or not")
     @GetMapping("/health-check")
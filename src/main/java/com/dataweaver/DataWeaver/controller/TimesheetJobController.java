@@ -0,0 +1,72 @@
+package com.dataweaver.DataWeaver.controller;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.dataweaver.DataWeaver.dto.GenerationOptions;
+import com.dataweaver.DataWeaver.dto.JobStatusResponse;
+import com.dataweaver.DataWeaver.model.OutputFormat;
+import com.dataweaver.DataWeaver.model.TimesheetJob;
+import com.dataweaver.DataWeaver.service.TimesheetJobService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Timesheet Job Controller", description = "Queues generate-excel runs in the background and serves their results")
+@RestController
+@RequestMapping("/data-weaver/jobs")
+public class TimesheetJobController {
+
+    private TimesheetJobService timesheetJobService;
+
+    public TimesheetJobController(TimesheetJobService timesheetJobService) {
+        this.timesheetJobService = timesheetJobService;
+    }
+
+    @Operation(summary = "Queues an excel generation job", description = "Accepts the same upload as generate-excel and returns a job id to poll. Responds with 429 when the job queue is full")
+    @PostMapping
+    public ResponseEntity<JobStatusResponse> submitJob(@RequestParam("file") MultipartFile file, @ParameterObject GenerationOptions options, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) throws IOException {
+        // the status response is JSON either way; Accept only picks the format of the result
+        options.acceptFormat(accept);
+        TimesheetJob job = timesheetJobService.submit(file, options);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/data-weaver/jobs/" + job.getId()))
+                .body(new JobStatusResponse(job));
+    }
+
+    @Operation(summary = "Returns the status of a job", description = "Returns the state and the number of employee sheets written so far")
+    @GetMapping("/{jobId}")
+    public ResponseEntity<JobStatusResponse> getJobStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok()
+                .body(new JobStatusResponse(timesheetJobService.getJob(jobId)));
+    }
+
+    @Operation(summary = "Downloads the result of a completed job", description = "Responds with 409 while the job is still queued or running, or if it failed")
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<Resource> getJobResult(@PathVariable String jobId) {
+        Resource result = new FileSystemResource(timesheetJobService.getResult(jobId));
+        OutputFormat format = timesheetJobService.getJob(jobId).getOptions().getFormat();
+
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=\"output" + format.getExtension() + "\"")
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .body(result);
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.dataweaver.DataWeaver.controller;
+
+import java.io.IOException;
+import java.time.YearMonth;
+
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.dataweaver.DataWeaver.dto.GenerationOptions;
+import com.dataweaver.DataWeaver.dto.StoreIngestResponse;
+import com.dataweaver.DataWeaver.model.OutputFormat;
+import com.dataweaver.DataWeaver.model.TimesheetIndex;
+import com.dataweaver.DataWeaver.service.DataWeaverService;
+import com.dataweaver.DataWeaver.service.TimesheetStore;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Timesheet Store Controller", description = "Merges daily or weekly exports into a persistent store and generates reports from it")
+@RestController
+@RequestMapping("/data-weaver/store")
+public class TimesheetStoreController {
+
+    private DataWeaverService dataWeaverService;
+    private TimesheetStore timesheetStore;
+
+    public TimesheetStoreController(DataWeaverService dataWeaverService, TimesheetStore timesheetStore) {
+        this.dataWeaverService = dataWeaverService;
+        this.timesheetStore = timesheetStore;
+    }
+
+    @Operation(summary = "Merges an export into the store", description = "Accepts the same upload as generate-excel. Every employee day in the upload replaces what was stored for it; other days are kept")
+    @PostMapping("/entries")
+    public ResponseEntity<StoreIngestResponse> ingest(@RequestParam("file") MultipartFile file) throws IOException {
+        return ResponseEntity.ok()
+                .body(timesheetStore.ingest(file));
+    }
+
+    @Operation(summary = "Generates a report from the store", description = "Covers the given month, or the from/to range. Takes the same options and Accept header as generate-excel. Responds with 404 when nothing is stored for the range")
+    @GetMapping("/report")
+    public ResponseEntity<StreamingResponseBody> report(@RequestParam(value = "month", required = false) YearMonth month, @ParameterObject GenerationOptions options, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) throws IOException {
+        options.acceptFormat(accept);
+        GenerationOptions resolvedOptions = dataWeaverService.resolveOptions(options);
+        TimesheetIndex index = timesheetStore.read(month, resolvedOptions);
+        OutputFormat format = resolvedOptions.getFormat();
+        StreamingResponseBody body = outputStream -> dataWeaverService.writeReport(index, resolvedOptions, outputStream);
+
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=\"output" + format.getExtension() + "\"")
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .body(body);
+    }
+
+    @Operation(summary = "Removes a month from the store", description = "Responds with 404 when nothing was stored for the month")
+    @DeleteMapping("/months/{month}")
+    public ResponseEntity<Void> deleteMonth(@PathVariable YearMonth month) throws IOException {
+        if (!timesheetStore.deleteMonth(month)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+}
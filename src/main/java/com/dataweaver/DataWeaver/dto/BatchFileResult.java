@@ -0,0 +1,20 @@
+package com.dataweaver.DataWeaver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one file of a batch, as listed in the batch manifest. Failed
+ * files have no output and carry the error instead.
+ */
+@Getter
+@AllArgsConstructor
+public class BatchFileResult {
+
+    private String source;
+    private String output;
+    private boolean succeeded;
+    private String error;
+    private long durationMillis;
+
+}
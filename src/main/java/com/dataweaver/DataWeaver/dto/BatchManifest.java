@@ -0,0 +1,20 @@
+package com.dataweaver.DataWeaver.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The {@code manifest.json} entry written last into every batch zip.
+ * Files are listed in the order their outputs were written.
+ */
+@Getter
+@AllArgsConstructor
+public class BatchManifest {
+
+    private int succeeded;
+    private int failed;
+    private List<BatchFileResult> files;
+
+}
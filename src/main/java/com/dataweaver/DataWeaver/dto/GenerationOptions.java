@@ -0,0 +1,56 @@
+package com.dataweaver.DataWeaver.dto;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.dataweaver.DataWeaver.config.ColumnSizing;
+import com.dataweaver.DataWeaver.config.SheetLayout;
+import com.dataweaver.DataWeaver.model.OutputFormat;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Per-request processing options, bound from query parameters. Options
+ * left unset fall back to the configured {@code data-weaver.*} defaults.
+ */
+@Getter
+@Setter
+public class GenerationOptions {
+
+    private ColumnSizing columnSizing;
+
+    private SheetLayout sheetLayout;
+
+    /** First day reported on; defaults to the first day of the earliest month in the upload. */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    /** Last day reported on; defaults to the last day of the latest month in the upload. */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    /** Output format; when not given, taken from the {@code Accept} header, otherwise XLSX. */
+    private OutputFormat format;
+
+    /**
+     * Takes the format from an {@code Accept} header unless the request
+     * named one explicitly.
+     */
+    public void acceptFormat(String accept) {
+        if (format == null) {
+            format = OutputFormat.fromAccept(accept);
+        }
+    }
+
+    /**
+     * Identifies the options in result cache keys. Every option that changes
+     * the generated bytes must be part of it.
+     */
+    public String toCacheKey() {
+        return "columnSizing=" + columnSizing + "&sheetLayout=" + sheetLayout + "&from=" + from + "&to=" + to
+            + "&format=" + format;
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.dataweaver.DataWeaver.dto;
+
+import java.time.Instant;
+
+import com.dataweaver.DataWeaver.model.JobState;
+import com.dataweaver.DataWeaver.model.TimesheetJob;
+
+import lombok.Getter;
+
+@Getter
+public class JobStatusResponse {
+
+    private String jobId;
+    private JobState state;
+    private int sheetsWritten;
+    private int totalSheets;
+    private String error;
+    private Instant createdAt;
+    private Instant finishedAt;
+
+    public JobStatusResponse(TimesheetJob job) {
+        this.jobId = job.getId();
+        this.state = job.getState();
+        this.sheetsWritten = job.getSheetsWritten();
+        this.totalSheets = job.getTotalSheets();
+        this.error = job.getError();
+        this.createdAt = job.getCreatedAt();
+        this.finishedAt = job.getFinishedAt();
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.dataweaver.DataWeaver.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * What an upload changed in the timesheet store: the months it touched,
+ * the employees it had entries for and the employee days it replaced.
+ */
+@Getter
+@AllArgsConstructor
+public class StoreIngestResponse {
+
+    private List<String> months;
+    private int employees;
+    private int days;
+
+}
@@ -0,0 +1,35 @@
+package com.dataweaver.DataWeaver.dto;
+
+import java.time.LocalDate;
+
+import com.dataweaver.DataWeaver.model.AdmissionDecision;
+import com.dataweaver.DataWeaver.model.UploadFormat;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * What the pre-flight inspection of an upload found in its first rows, and
+ * what it estimates for the whole upload. Estimates are exact when
+ * {@code complete} is true, i.e. the sample was the whole upload.
+ */
+@Getter
+@AllArgsConstructor
+public class UploadInspection {
+
+    private UploadFormat format;
+    private int sampledRows;
+    private boolean complete;
+    private long estimatedRows;
+    private long estimatedEmployees;
+    /** First and last date seen in the sample. */
+    private LocalDate firstDate;
+    private LocalDate lastDate;
+    /** Upload rows plus the day rows of the sheets it will produce. */
+    private long estimatedCost;
+    /** What admission control would do with the upload right now; not set until it is asked. */
+    @Setter
+    private AdmissionDecision admission;
+
+}
@@ -2,10 +2,13 @@ package com.dataweaver.DataWeaver.exception;
 
 import java.io.IOException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import com.dataweaver.DataWeaver.dto.ErrorResponse;
 
@@ -15,9 +18,11 @@ import io.swagger.v3.oas.annotations.Hidden;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
     @ExceptionHandler(IOException.class)
     public ResponseEntity<ErrorResponse> handleIOException(IOException ex) {
-        System.err.println("IOException occurred: " + ex.getMessage());
+        log.error("IOException occurred: {}", ex.getMessage());
 
         ErrorResponse errorResponse = new ErrorResponse(
             "An I/O error occurred",
@@ -29,7 +34,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(CustomException.class)
     public ResponseEntity<ErrorResponse> handleCustomException(CustomException ex) {
-        System.err.println("CustomException occurred: " + ex.getMessage());
+        log.warn("CustomException occurred: {}", ex.getMessage());
 
         ErrorResponse errorResponse = new ErrorResponse(
             "An CustomException occurred",
@@ -39,9 +44,33 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(RequestRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleRequestRejectedException(RequestRejectedException ex) {
+        log.warn("Request rejected with {}: {}", ex.getStatus(), ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            "The request was rejected",
+            ex.getMessage()
+        );
+
+        return new ResponseEntity<>(errorResponse, ex.getStatus());
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleMaxUploadSizeExceededException(MaxUploadSizeExceededException ex) {
+        log.warn("Upload rejected: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+            "The upload is too large",
+            "Uploads are limited by spring.servlet.multipart.max-file-size and max-request-size"
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
-        System.err.println("Generic Exception occurred: " + ex.getMessage());
+        log.error("Generic Exception occurred: {}", ex.getMessage(), ex);
 
         ErrorResponse errorResponse = new ErrorResponse(
             "An unexpected error occurred", 
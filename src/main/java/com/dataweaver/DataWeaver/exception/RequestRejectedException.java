@@ -0,0 +1,20 @@
+package com.dataweaver.DataWeaver.exception;
+
+import org.springframework.http.HttpStatus;
+
+import lombok.Getter;
+
+/**
+ * A request that could not be served for a reason the client can act on,
+ * reported with {@link #getStatus()} instead of a 500.
+ */
+@Getter
+public class RequestRejectedException extends CustomException {
+
+    private final HttpStatus status;
+
+    public RequestRejectedException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+}
@@ -0,0 +1,14 @@
+package com.dataweaver.DataWeaver.model;
+
+/**
+ * What the admission control would do with an upload of a given cost,
+ * given the uploads in progress.
+ */
+public enum AdmissionDecision {
+    /** Fits the free budget and would start at once. */
+    ADMIT,
+    /** Fits the budget but would wait for uploads in progress to finish. */
+    QUEUE,
+    /** Costs more than the whole budget. */
+    REJECT
+}
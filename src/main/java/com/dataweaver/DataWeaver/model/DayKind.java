@@ -0,0 +1,10 @@
+package com.dataweaver.DataWeaver.model;
+
+public enum DayKind {
+    WORKDAY,
+    WEEKEND,
+    /** A date configured in {@code data-weaver.days.holidays}; shown like a weekend. */
+    HOLIDAY,
+    /** A working day with no task description. */
+    LEAVE
+}
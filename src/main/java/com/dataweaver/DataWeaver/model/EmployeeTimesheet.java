@@ -0,0 +1,154 @@
+package com.dataweaver.DataWeaver.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.Getter;
+
+/**
+ * One employee's entries aggregated per day, for any number of months.
+ * Days are epoch days; each month seen gets a block of arrays indexed by
+ * day of month, with the days that have entries or a recorded total kept
+ * as bitsets.
+ */
+public class EmployeeTimesheet {
+
+    @Getter
+    private final String name;
+
+    private final Map<Integer, MonthEntries> months = new TreeMap<>();
+    // entries arrive mostly in date order, so the last month written is usually the next one
+    private MonthEntries lastMonth;
+
+    public EmployeeTimesheet(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds a task entry to its day. A description already seen on the same
+     * day is not repeated, but its hours still count.
+     */
+    public void addEntry(int epochDay, String description, double taskHours) {
+        MonthEntries month = monthForWrite(epochDay);
+        int day = month.dayOfMonth(epochDay);
+        List<String> seen = month.seenDescriptions[day];
+        if (seen == null) {
+            seen = new ArrayList<>(4);
+            month.seenDescriptions[day] = seen;
+        }
+        if (!seen.contains(description)) {
+            seen.add(description);
+            String existingTask = month.descriptions[day];
+            if (existingTask == null || existingTask.isEmpty()) {
+                month.descriptions[day] = description;
+            } else {
+                month.descriptions[day] = existingTask + ", " + description;
+            }
+        }
+        month.hours[day] += taskHours;
+        month.daysWithEntries |= 1 << day;
+    }
+
+    /**
+     * Source rows repeat the day's total on every entry, so only the first
+     * total seen for a day is counted.
+     */
+    public void addDailyTotal(int epochDay, double dailyTotal) {
+        MonthEntries month = monthForWrite(epochDay);
+        int day = month.dayOfMonth(epochDay);
+        int bit = 1 << day;
+        if ((month.daysWithTotal & bit) != 0) {
+            return;
+        }
+        month.daysWithTotal |= bit;
+        month.dailyTotals[day] = dailyTotal;
+    }
+
+    public boolean hasEntries(int epochDay) {
+        MonthEntries month = find(epochDay);
+        return month != null && (month.daysWithEntries & (1 << month.dayOfMonth(epochDay))) != 0;
+    }
+
+    public String getDescription(int epochDay) {
+        MonthEntries month = find(epochDay);
+        String description = month == null ? null : month.descriptions[month.dayOfMonth(epochDay)];
+        return description == null ? "" : description;
+    }
+
+    public double getHours(int epochDay) {
+        MonthEntries month = find(epochDay);
+        return month == null ? 0.0 : month.hours[month.dayOfMonth(epochDay)];
+    }
+
+    public boolean hasDailyTotal(int epochDay) {
+        MonthEntries month = find(epochDay);
+        return month != null && (month.daysWithTotal & (1 << month.dayOfMonth(epochDay))) != 0;
+    }
+
+    public double getDailyTotal(int epochDay) {
+        MonthEntries month = find(epochDay);
+        return month == null ? 0.0 : month.dailyTotals[month.dayOfMonth(epochDay)];
+    }
+
+    /** Sum of the daily totals recorded between two epoch days, inclusive. */
+    public double getTotalHours(int firstDay, int lastDay) {
+        double total = 0.0;
+        for (MonthEntries month: months.values()) {
+            int from = Math.max(firstDay, month.firstDay);
+            int to = Math.min(lastDay, month.firstDay + month.length - 1);
+            for (int epochDay = from; epochDay <= to; epochDay++) {
+                total += month.dailyTotals[month.dayOfMonth(epochDay)];
+            }
+        }
+        return total;
+    }
+
+    private MonthEntries monthForWrite(int epochDay) {
+        if (lastMonth == null || !lastMonth.contains(epochDay)) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            lastMonth = months.computeIfAbsent(monthKey(date), key -> new MonthEntries(date));
+        }
+        return lastMonth;
+    }
+
+    private MonthEntries find(int epochDay) {
+        return months.get(monthKey(LocalDate.ofEpochDay(epochDay)));
+    }
+
+    private static int monthKey(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    private static class MonthEntries {
+
+        private static final int DAY_SLOTS = 32;
+
+        private final int firstDay;
+        private final int length;
+        private int daysWithEntries;
+        private int daysWithTotal;
+        private final double[] hours = new double[DAY_SLOTS];
+        private final double[] dailyTotals = new double[DAY_SLOTS];
+        private final String[] descriptions = new String[DAY_SLOTS];
+        @SuppressWarnings("unchecked")
+        private final List<String>[] seenDescriptions = new List[DAY_SLOTS];
+
+        MonthEntries(LocalDate date) {
+            this.firstDay = (int) date.withDayOfMonth(1).toEpochDay();
+            this.length = date.lengthOfMonth();
+        }
+
+        boolean contains(int epochDay) {
+            return epochDay >= firstDay && epochDay < firstDay + length;
+        }
+
+        int dayOfMonth(int epochDay) {
+            return epochDay - firstDay + 1;
+        }
+
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.dataweaver.DataWeaver.model;
+
+public enum JobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,81 @@
+package com.dataweaver.DataWeaver.model;
+
+import java.util.List;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import lombok.Getter;
+
+/**
+ * Formats the generated timesheets can be returned in.
+ */
+@Getter
+public enum OutputFormat {
+
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", ".xlsx"),
+    /** A zip with one CSV file for the summary and one per employee sheet. */
+    CSV("application/zip", ".zip"),
+    JSON("application/json", ".json");
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    OutputFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * The format an {@code Accept} header prefers, by quality. Each format
+     * takes the quality of the most specific media range that matches it,
+     * so {@code *}{@code /*} counts for all of them. Ties go to the earlier
+     * format, which keeps XLSX for headers such as
+     * {@code application/json, text/plain, *}{@code /*} that clients send
+     * by default. {@code text/csv} asks for the CSV zip. Null when the
+     * header is missing or malformed, or rules out every format.
+     */
+    public static OutputFormat fromAccept(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        List<MediaType> ranges;
+        try {
+            ranges = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        OutputFormat preferred = null;
+        double preferredQuality = 0;
+        for (OutputFormat format: values()) {
+            double quality = format.quality(ranges);
+            if (quality > preferredQuality) {
+                preferred = format;
+                preferredQuality = quality;
+            }
+        }
+        return preferred;
+    }
+
+    private double quality(List<MediaType> ranges) {
+        MediaType best = null;
+        for (MediaType range: ranges) {
+            if (accepts(range) && (best == null || specificity(range) > specificity(best))) {
+                best = range;
+            }
+        }
+        return best == null ? 0 : best.getQualityValue();
+    }
+
+    private boolean accepts(MediaType range) {
+        return range.includes(MediaType.parseMediaType(mediaType))
+            || (this == CSV && range.includes(TEXT_CSV));
+    }
+
+    private static int specificity(MediaType range) {
+        return range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.dataweaver.DataWeaver.model;
+
+import java.util.Collection;
+import java.util.TreeMap;
+
+import lombok.Getter;
+
+/**
+ * Source entries grouped by employee and day, built in a single pass over
+ * the uploaded sheet whatever range of dates it covers. Employees are kept
+ * in name order, which is the order of the output sheets.
+ */
+public class TimesheetIndex {
+
+    private final TreeMap<String, EmployeeTimesheet> employees = new TreeMap<>();
+
+    /** Epoch day of the earliest entry read. */
+    @Getter
+    private int firstDay = Integer.MAX_VALUE;
+
+    /** Epoch day of the latest entry read. */
+    @Getter
+    private int lastDay = Integer.MIN_VALUE;
+
+    public EmployeeTimesheet employee(String name) {
+        return employees.computeIfAbsent(name, EmployeeTimesheet::new);
+    }
+
+    public void recordDate(int epochDay) {
+        if (epochDay < firstDay) {
+            firstDay = epochDay;
+        }
+        if (epochDay > lastDay) {
+            lastDay = epochDay;
+        }
+    }
+
+    public Collection<EmployeeTimesheet> getEmployees() {
+        return employees.values();
+    }
+
+    public boolean isEmpty() {
+        return employees.isEmpty();
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.dataweaver.DataWeaver.model;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import com.dataweaver.DataWeaver.dto.GenerationOptions;
+
+import lombok.Getter;
+
+/**
+ * A queued generate-excel run. State is written by the worker thread and
+ * read by status requests, hence the volatile fields.
+ */
+@Getter
+public class TimesheetJob {
+
+    private final String id;
+    private final GenerationOptions options;
+    private final UploadFormat format;
+    private final Path uploadFile;
+    private final Path resultFile;
+    private final Instant createdAt = Instant.now();
+
+    private volatile JobState state = JobState.QUEUED;
+    private volatile int sheetsWritten;
+    private volatile int totalSheets;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    public TimesheetJob(String id, GenerationOptions options, UploadFormat format, Path uploadFile, Path resultFile) {
+        this.id = id;
+        this.options = options;
+        this.format = format;
+        this.uploadFile = uploadFile;
+        this.resultFile = resultFile;
+    }
+
+    public void markRunning() {
+        state = JobState.RUNNING;
+    }
+
+    public void updateProgress(int sheetsWritten, int totalSheets) {
+        this.totalSheets = totalSheets;
+        this.sheetsWritten = sheetsWritten;
+    }
+
+    public void markCompleted() {
+        finishedAt = Instant.now();
+        state = JobState.COMPLETED;
+    }
+
+    public void markFailed(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        state = JobState.FAILED;
+    }
+
+    public boolean isFinished() {
+        return state == JobState.COMPLETED || state == JobState.FAILED;
+    }
+
+}
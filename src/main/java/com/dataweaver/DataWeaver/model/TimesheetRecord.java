@@ -0,0 +1,31 @@
+package com.dataweaver.DataWeaver.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One source row reduced to the columns the pipeline uses. Cells missing
+ * from the row are {@code null}. When the date was a native Excel date cell
+ * the reader also supplies it as {@code epochDay}; otherwise that is
+ * {@link #NO_EPOCH_DAY} and the date text is parsed later.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class TimesheetRecord {
+
+    public static final int NO_EPOCH_DAY = Integer.MIN_VALUE;
+
+    private String employeeName;
+    private String date;
+    private String description;
+    private String taskHours;
+    private String totalHours;
+    private int epochDay;
+
+    public boolean hasEpochDay() {
+        return epochDay != NO_EPOCH_DAY;
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.dataweaver.DataWeaver.model;
+
+import java.util.Locale;
+
+/**
+ * File formats a timesheet can be uploaded in.
+ */
+public enum UploadFormat {
+
+    XLSX,
+    CSV,
+    TSV;
+
+    /**
+     * Picks the format from the upload's content type, falling back to its
+     * file extension. Anything unrecognised is treated as a workbook.
+     */
+    public static UploadFormat detect(String filename, String contentType) {
+        if (contentType != null) {
+            String type = contentType.toLowerCase(Locale.ROOT);
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+            if (type.startsWith("text/tab-separated-values")) {
+                return TSV;
+            }
+        }
+        if (filename != null) {
+            String name = filename.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".tsv") || name.endsWith(".tab")) {
+                return TSV;
+            }
+        }
+        return XLSX;
+    }
+
+    public boolean isDelimited() {
+        return this != XLSX;
+    }
+
+}
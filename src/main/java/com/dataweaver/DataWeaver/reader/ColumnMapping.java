@@ -0,0 +1,88 @@
+package com.dataweaver.DataWeaver.reader;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.exception.CustomException;
+
+/**
+ * Header names accepted for each source column, from
+ * {@code data-weaver.columns.*}. The names are normalised into one lookup
+ * table at startup, so resolving a header row is a map lookup per cell and
+ * rows are then read by column position only.
+ */
+@Component
+public class ColumnMapping {
+
+    static final int EMPLOYEE_NAME = 0;
+    static final int DATE = 1;
+    static final int DESCRIPTION = 2;
+    static final int TASK_HOURS = 3;
+    static final int TOTAL_HOURS = 4;
+
+    private static final String[] PROPERTY_NAMES = {
+        "employee-name", "date", "description", "task-hours", "total-hours"
+    };
+
+    private final Map<String, Integer> fieldsByHeader = new HashMap<>();
+    // the first name configured for each field, for error messages
+    private final String[] displayNames = new String[PROPERTY_NAMES.length];
+
+    public ColumnMapping(DataWeaverProperties properties) {
+        DataWeaverProperties.Columns columns = properties.getColumns();
+        add(EMPLOYEE_NAME, columns.getEmployeeName());
+        add(DATE, columns.getDate());
+        add(DESCRIPTION, columns.getDescription());
+        add(TASK_HOURS, columns.getTaskHours());
+        add(TOTAL_HOURS, columns.getTotalHours());
+    }
+
+    /**
+     * Finds each field's column in a header row. When several columns match
+     * a field, the leftmost is used.
+     *
+     * @throws CustomException if a field has no column
+     */
+    public TimesheetHeader resolve(List<String> header) {
+        int[] columnIndexes = new int[PROPERTY_NAMES.length];
+        Arrays.fill(columnIndexes, -1);
+        for (int columnIndex = 0; columnIndex < header.size(); columnIndex++) {
+            String name = header.get(columnIndex);
+            Integer field = name == null ? null : fieldsByHeader.get(normalise(name));
+            if (field != null && columnIndexes[field] == -1) {
+                columnIndexes[field] = columnIndex;
+            }
+        }
+        for (int field = 0; field < columnIndexes.length; field++) {
+            if (columnIndexes[field] == -1) {
+                throw new CustomException("Column '" + displayNames[field] + "' is missing from the header row");
+            }
+        }
+        return new TimesheetHeader(columnIndexes);
+    }
+
+    private void add(int field, List<String> names) {
+        if (names == null || names.isEmpty()) {
+            throw new IllegalStateException("data-weaver.columns." + PROPERTY_NAMES[field] + " must name at least one header");
+        }
+        displayNames[field] = names.get(0).trim();
+        for (String name: names) {
+            Integer previous = fieldsByHeader.putIfAbsent(normalise(name), field);
+            if (previous != null && previous != field) {
+                throw new IllegalStateException("Header '" + name.trim() + "' is configured for both data-weaver.columns."
+                    + PROPERTY_NAMES[previous] + " and data-weaver.columns." + PROPERTY_NAMES[field]);
+            }
+        }
+    }
+
+    private static String normalise(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+}
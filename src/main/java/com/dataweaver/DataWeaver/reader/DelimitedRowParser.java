@@ -0,0 +1,150 @@
+package com.dataweaver.DataWeaver.reader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Splits delimited text into rows of fields, a byte at a time, as chunks of
+ * input are fed in. Nothing is decoded until a field is complete, and the
+ * field buffer and row list are reused, so the only allocation per field is
+ * its String. Fields are UTF-8.
+ * <p>
+ * With quoting on, fields follow RFC 4180: a field starting with a double
+ * quote may contain delimiters, line breaks and doubled quotes. Empty fields
+ * are reported as {@code null}, like missing cells in a workbook. Blank lines
+ * are skipped and a leading byte order mark is ignored.
+ */
+class DelimitedRowParser {
+
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte[] BYTE_ORDER_MARK = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private enum State { FIELD_START, UNQUOTED, QUOTED, QUOTE_IN_QUOTED }
+
+    private final byte delimiter;
+    private final boolean quoting;
+    private final Consumer<List<String>> rowConsumer;
+    private final List<String> row = new ArrayList<>();
+    private byte[] field = new byte[256];
+    private int fieldLength;
+    private State state = State.FIELD_START;
+    private boolean atStart = true;
+
+    DelimitedRowParser(byte delimiter, boolean quoting, Consumer<List<String>> rowConsumer) {
+        this.delimiter = delimiter;
+        this.quoting = quoting;
+        this.rowConsumer = rowConsumer;
+    }
+
+    void feed(ByteBuffer buffer) {
+        if (atStart) {
+            atStart = false;
+            skipByteOrderMark(buffer);
+        }
+        while (buffer.hasRemaining()) {
+            accept(buffer.get());
+        }
+    }
+
+    void feed(byte[] bytes, int length) {
+        feed(ByteBuffer.wrap(bytes, 0, length));
+    }
+
+    /** Ends the input, emitting a last row that has no line break after it. */
+    void finish() {
+        if (state == State.QUOTED) {
+            throw new IllegalArgumentException("Unterminated quoted field at end of input");
+        }
+        if (state != State.FIELD_START || fieldLength > 0 || !row.isEmpty()) {
+            endRow();
+        }
+    }
+
+    private void accept(byte b) {
+        switch (state) {
+            case FIELD_START:
+                if (b == QUOTE && quoting) {
+                    state = State.QUOTED;
+                } else if (b == delimiter) {
+                    endField();
+                } else if (b == LF) {
+                    endRow();
+                } else if (b != CR) {
+                    append(b);
+                    state = State.UNQUOTED;
+                }
+                break;
+            case UNQUOTED:
+                if (b == delimiter) {
+                    endField();
+                } else if (b == LF) {
+                    endRow();
+                } else if (b != CR) {
+                    append(b);
+                }
+                break;
+            case QUOTED:
+                if (b == QUOTE) {
+                    state = State.QUOTE_IN_QUOTED;
+                } else {
+                    append(b);
+                }
+                break;
+            case QUOTE_IN_QUOTED:
+                if (b == QUOTE) {
+                    append(b);
+                    state = State.QUOTED;
+                } else if (b == delimiter) {
+                    endField();
+                } else if (b == LF) {
+                    endRow();
+                } else if (b != CR) {
+                    // text after a closing quote is kept, as spreadsheet programs do
+                    append(b);
+                    state = State.UNQUOTED;
+                }
+                break;
+            default:
+                throw new IllegalStateException(state.name());
+        }
+    }
+
+    // a mark split across the first two chunks is not recognised; readers feed far larger chunks
+    private static void skipByteOrderMark(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() >= BYTE_ORDER_MARK.length
+                && buffer.get(start) == BYTE_ORDER_MARK[0]
+                && buffer.get(start + 1) == BYTE_ORDER_MARK[1]
+                && buffer.get(start + 2) == BYTE_ORDER_MARK[2]) {
+            buffer.position(start + BYTE_ORDER_MARK.length);
+        }
+    }
+
+    private void append(byte b) {
+        if (fieldLength == field.length) {
+            field = Arrays.copyOf(field, field.length * 2);
+        }
+        field[fieldLength++] = b;
+    }
+
+    private void endField() {
+        row.add(fieldLength == 0 ? null : new String(field, 0, fieldLength, StandardCharsets.UTF_8));
+        fieldLength = 0;
+        state = State.FIELD_START;
+    }
+
+    private void endRow() {
+        endField();
+        if (row.size() > 1 || row.get(0) != null) {
+            rowConsumer.accept(row);
+        }
+        row.clear();
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.dataweaver.DataWeaver.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+import com.dataweaver.DataWeaver.exception.CustomException;
+import com.dataweaver.DataWeaver.model.TimesheetRecord;
+import com.dataweaver.DataWeaver.model.UploadFormat;
+
+/**
+ * Reads CSV and TSV uploads. Rows go through the same header mapping as
+ * workbooks, so the columns may be in any order. Uploads already on disk
+ * are memory-mapped rather than copied through a stream buffer.
+ */
+@Component
+public class DelimitedTimesheetReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // mapped windows are capped below Integer.MAX_VALUE, the most a single MappedByteBuffer can hold
+    private static final long MAP_WINDOW_SIZE = 1L << 30;
+
+    private final ColumnMapping columnMapping;
+
+    public DelimitedTimesheetReader(ColumnMapping columnMapping) {
+        this.columnMapping = columnMapping;
+    }
+
+    public void read(InputStream inputStream, UploadFormat format, Consumer<TimesheetRecord> consumer)
+            throws IOException {
+        DelimitedRowParser parser = parser(format, consumer);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            parser.feed(buffer, read);
+        }
+        finish(parser);
+    }
+
+    public void read(Path file, UploadFormat format, Consumer<TimesheetRecord> consumer) throws IOException {
+        DelimitedRowParser parser = parser(format, consumer);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_WINDOW_SIZE) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(MAP_WINDOW_SIZE, size - position));
+                parser.feed(window);
+            }
+        }
+        finish(parser);
+    }
+
+    /**
+     * Reads the header and at most {@code maxRows} data rows, leaving the
+     * rest unparsed. The row count is extrapolated from how many of the
+     * upload's {@code size} bytes the sample took.
+     */
+    public TimesheetSample sample(InputStream inputStream, UploadFormat format, long size, int maxRows)
+            throws IOException {
+        List<TimesheetRecord> records = new ArrayList<>();
+        DelimitedRowParser parser = parser(format, TimesheetSample.collector(records, maxRows));
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long bytesRead = 0;
+        int read;
+        try {
+            while ((read = inputStream.read(buffer)) != -1) {
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                try {
+                    parser.feed(chunk);
+                } finally {
+                    bytesRead += chunk.position();
+                }
+            }
+            finish(parser);
+        } catch (TimesheetSample.SampleFull e) {
+            return TimesheetSample.extrapolated(records, bytesRead, size);
+        }
+        return TimesheetSample.complete(records);
+    }
+
+    public TimesheetSample sample(Path file, UploadFormat format, int maxRows) throws IOException {
+        List<TimesheetRecord> records = new ArrayList<>();
+        DelimitedRowParser parser = parser(format, TimesheetSample.collector(records, maxRows));
+        long size;
+        long bytesRead = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = channel.size();
+            try {
+                for (long position = 0; position < size; position += MAP_WINDOW_SIZE) {
+                    MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(MAP_WINDOW_SIZE, size - position));
+                    try {
+                        parser.feed(window);
+                    } finally {
+                        bytesRead += window.position();
+                    }
+                }
+                finish(parser);
+            } catch (TimesheetSample.SampleFull e) {
+                return TimesheetSample.extrapolated(records, bytesRead, size);
+            }
+        }
+        return TimesheetSample.complete(records);
+    }
+
+    private DelimitedRowParser parser(UploadFormat format, Consumer<TimesheetRecord> consumer) {
+        if (!format.isDelimited()) {
+            throw new IllegalArgumentException(format + " is not a delimited format");
+        }
+        RowMapper rowMapper = new RowMapper(columnMapping, consumer);
+        // TSV has no quoting convention; a leading quote is part of the value
+        return format == UploadFormat.TSV
+            ? new DelimitedRowParser((byte) '\t', false, rowMapper)
+            : new DelimitedRowParser((byte) ',', true, rowMapper);
+    }
+
+    private void finish(DelimitedRowParser parser) {
+        try {
+            parser.finish();
+        } catch (IllegalArgumentException e) {
+            throw new CustomException("Unable to read uploaded file: " + e.getMessage());
+        }
+    }
+
+    private static class RowMapper implements Consumer<List<String>> {
+
+        private final ColumnMapping columnMapping;
+        private final Consumer<TimesheetRecord> consumer;
+        private TimesheetHeader header;
+
+        RowMapper(ColumnMapping columnMapping, Consumer<TimesheetRecord> consumer) {
+            this.columnMapping = columnMapping;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void accept(List<String> values) {
+            if (header == null) {
+                header = columnMapping.resolve(values);
+                return;
+            }
+            consumer.accept(header.toRecord(values));
+        }
+
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.dataweaver.DataWeaver.reader;
+
+/**
+ * Parses the hours columns of a source row without creating substrings.
+ * Two forms are accepted:
+ * <ul>
+ *   <li>{@code HH:MM}, where minutes of 15, 30 and 45 add 0.3, 0.5 and
+ *   0.75 hours and any other minutes are ignored. The 0.3 for a quarter
+ *   hour is how these timesheets have always been totalled.</li>
+ *   <li>decimal hours such as {@code 7.5}. Anything beyond plain digits
+ *   and one decimal point falls back to {@link Double#parseDouble}, for
+ *   signs and exponents; other text and values that are not finite are
+ *   rejected.</li>
+ * </ul>
+ */
+public final class HoursParser {
+
+    // decimals with up to 15 significant digits and 22 fraction digits divide exactly into the nearest double
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private HoursParser() {
+    }
+
+    /**
+     * Returns the hours in {@code value}, or 0 when it is null or blank.
+     *
+     * @throws NumberFormatException if the value is in neither form
+     */
+    public static double parse(CharSequence value) {
+        if (value == null) {
+            return 0.0;
+        }
+        int start = 0;
+        int end = value.length();
+        while (start < end && Character.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return 0.0;
+        }
+
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == ':') {
+                return parseClock(value, start, i, end);
+            }
+        }
+        return parseDecimal(value, start, end);
+    }
+
+    private static double parseClock(CharSequence value, int start, int colon, int end) {
+        // only the two digits before the colon count as hours
+        int hours = digits(value, Math.max(start, colon - 2), colon);
+        int minutes = digits(value, colon + 1, Math.min(end, colon + 3));
+        double result = hours;
+        if (minutes == 15) {
+            result += 0.3;
+        } else if (minutes == 30) {
+            result += 0.5;
+        } else if (minutes == 45) {
+            result += 0.75;
+        }
+        return result;
+    }
+
+    private static int digits(CharSequence value, int from, int to) {
+        if (from >= to) {
+            throw new NumberFormatException("Invalid hours: " + value);
+        }
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Invalid hours: " + value);
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static double parseDecimal(CharSequence value, int start, int end) {
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigits = -1;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            int digit = c - '0';
+            if (digit < 0 || digit > 9 || digitCount == MAX_FAST_DIGITS) {
+                return parseFallback(value, start, end);
+            }
+            mantissa = mantissa * 10 + digit;
+            if (mantissa != 0) {
+                digitCount++;
+            }
+            if (fractionDigits >= 0) {
+                fractionDigits++;
+            }
+        }
+        if (fractionDigits >= POWERS_OF_TEN.length || (fractionDigits == 0 && end - start == 1)) {
+            return parseFallback(value, start, end);
+        }
+        return fractionDigits <= 0 ? mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+    }
+
+    // Double.parseDouble alone would also take NaN, Infinity, hex and 1e400, none of which a report can total
+    private static double parseFallback(CharSequence value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && c != '.' && c != 'e' && c != 'E' && c != '+' && c != '-') {
+                throw new NumberFormatException("Invalid hours: " + value);
+            }
+        }
+        double result = Double.parseDouble(value.subSequence(start, end).toString());
+        if (!Double.isFinite(result)) {
+            throw new NumberFormatException("Invalid hours: " + value);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.dataweaver.DataWeaver.reader;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.springframework.stereotype.Component;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+
+/**
+ * Rounds hours as they are read to a multiple of
+ * {@code data-weaver.hours.rounding-increment}, e.g. to the nearest quarter
+ * hour with {@code 0.25}. With the default increment of 0 hours are kept
+ * exactly as parsed.
+ */
+@Component
+public class HoursRounding {
+
+    private final BigDecimal increment;
+    private final RoundingMode roundingMode;
+
+    public HoursRounding(DataWeaverProperties properties) {
+        DataWeaverProperties.Hours hours = properties.getHours();
+        if (hours.getRoundingIncrement().signum() < 0) {
+            throw new IllegalStateException("data-weaver.hours.rounding-increment must not be negative");
+        }
+        this.increment = hours.getRoundingIncrement().signum() == 0 ? null : hours.getRoundingIncrement();
+        this.roundingMode = hours.getRoundingMode();
+    }
+
+    public double apply(double hours) {
+        if (increment == null || hours == 0.0) {
+            return hours;
+        }
+        // BigDecimal.valueOf goes through the shortest decimal form, so 7.3 is rounded as 7.3
+        BigDecimal increments = BigDecimal.valueOf(hours).divide(increment, 0, roundingMode);
+        return increments.multiply(increment).doubleValue();
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.dataweaver.DataWeaver.reader;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Converts source dates to epoch days (days since 1970-01-01) once, as they
+ * are read. Dates arrive either as {@code "MMM dd, yyyy"} text or as native
+ * Excel date cells holding a serial day number in the 1900 date system.
+ */
+public final class SourceDates {
+
+    public static final String SOURCE_PATTERN = "MMM dd, yyyy";
+
+    /** Excel serial number of 1970-01-01; valid for dates from March 1900 on. */
+    private static final int EXCEL_SERIAL_OF_EPOCH = 25569;
+
+    private static final DateTimeFormatter SOURCE_DATE_FORMAT = DateTimeFormatter.ofPattern(SOURCE_PATTERN);
+    private static final String[] MONTHS = {
+        "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+    };
+    private static final int TEXT_LENGTH = "Jan 01, 2025".length();
+
+    private SourceDates() {
+    }
+
+    /**
+     * Parses {@code "MMM dd, yyyy"} text. Text in exactly that shape with an
+     * English month is read in place; anything else goes through
+     * {@link DateTimeFormatter}, which also produces the error for bad input.
+     *
+     * @throws DateTimeParseException if the text is not a date in that pattern
+     */
+    public static int parseEpochDay(String text) {
+        if (text.length() == TEXT_LENGTH && text.charAt(3) == ' ' && text.charAt(6) == ',' && text.charAt(7) == ' ') {
+            int month = month(text);
+            int day = digits(text, 4, 6);
+            int year = digits(text, 8, 12);
+            if (month > 0 && day > 0 && year >= 0 && day <= lengthOfMonth(year, month)) {
+                return epochDay(year, month, day);
+            }
+        }
+        return (int) LocalDate.parse(text, SOURCE_DATE_FORMAT).toEpochDay();
+    }
+
+    /** Epoch day of an Excel date serial; any time of day is dropped. */
+    public static int fromExcelSerial(double serial) {
+        return (int) Math.floor(serial) - EXCEL_SERIAL_OF_EPOCH;
+    }
+
+    public static double toExcelSerial(int epochDay) {
+        return epochDay + EXCEL_SERIAL_OF_EPOCH;
+    }
+
+    private static int month(String text) {
+        for (int month = 0; month < MONTHS.length; month++) {
+            if (text.regionMatches(0, MONTHS[month], 0, 3)) {
+                return month + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int digits(String text, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    // days-from-civil: https://howardhinnant.github.io/date_algorithms.html
+    private static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+}
@@ -0,0 +1,282 @@
+package com.dataweaver.DataWeaver.reader;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import com.dataweaver.DataWeaver.exception.CustomException;
+import com.dataweaver.DataWeaver.model.TimesheetRecord;
+
+/**
+ * Reads the first sheet with POI's SAX event API, so only the row being
+ * parsed and the shared-strings table are held in heap.
+ */
+@Component
+public class StreamingTimesheetReader implements TimesheetReader {
+
+    private final ColumnMapping columnMapping;
+
+    public StreamingTimesheetReader(ColumnMapping columnMapping) {
+        this.columnMapping = columnMapping;
+    }
+
+    @Override
+    public void read(InputStream inputStream, Consumer<TimesheetRecord> consumer) throws IOException {
+        read(() -> OPCPackage.open(inputStream), consumer);
+    }
+
+    @Override
+    public void read(Path file, Consumer<TimesheetRecord> consumer) throws IOException {
+        read(() -> OPCPackage.open(file.toFile(), PackageAccess.READ), consumer);
+    }
+
+    /**
+     * Reads the header and at most {@code maxRows} data rows of the first
+     * sheet, leaving the rest unparsed. The row count is taken from the
+     * sheet's dimension when it spans more than one cell, otherwise
+     * extrapolated from how much of the sheet XML the sample took.
+     */
+    public TimesheetSample sample(InputStream inputStream, int maxRows) throws IOException {
+        return sample(() -> OPCPackage.open(inputStream), maxRows);
+    }
+
+    public TimesheetSample sample(Path file, int maxRows) throws IOException {
+        return sample(() -> OPCPackage.open(file.toFile(), PackageAccess.READ), maxRows);
+    }
+
+    private void read(PackageOpener opener, Consumer<TimesheetRecord> consumer) throws IOException {
+        parse(opener, (sheetStream, sheetSize, styles, sharedStrings) -> {
+            DateCapturingFormatter formatter = new DateCapturingFormatter();
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(
+                styles, sharedStrings, new RowCollector(columnMapping, consumer, formatter), formatter, false));
+            parser.parse(new InputSource(sheetStream));
+        });
+    }
+
+    private TimesheetSample sample(PackageOpener opener, int maxRows) throws IOException {
+        List<TimesheetRecord> records = new ArrayList<>();
+        TimesheetSample[] sample = new TimesheetSample[1];
+        parse(opener, (sheetStream, sheetSize, styles, sharedStrings) -> {
+            CountingInputStream countingStream = new CountingInputStream(sheetStream);
+            DateCapturingFormatter formatter = new DateCapturingFormatter();
+            DimensionCapturingHandler handler = new DimensionCapturingHandler(styles, sharedStrings,
+                new RowCollector(columnMapping, TimesheetSample.collector(records, maxRows), formatter), formatter);
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(handler);
+            try {
+                parser.parse(new InputSource(countingStream));
+                sample[0] = TimesheetSample.complete(records);
+            } catch (TimesheetSample.SampleFull e) {
+                if (handler.lastRow > 1) {
+                    // the dimension's last row is the header's row plus every data row below it
+                    sample[0] = TimesheetSample.partial(records, handler.lastRow - 1);
+                } else {
+                    long sampledBytes = countingStream.count;
+                    if (sheetSize < 0) {
+                        // packages opened from a stream, which are small, may not know their part sizes
+                        countingStream.transferTo(OutputStream.nullOutputStream());
+                        sheetSize = countingStream.count;
+                    }
+                    sample[0] = TimesheetSample.extrapolated(records, sampledBytes, sheetSize);
+                }
+            }
+        });
+        return sample[0];
+    }
+
+    private void parse(PackageOpener opener, SheetParser sheetParser) throws IOException {
+        OPCPackage opcPackage = null;
+        try {
+            opcPackage = opener.open();
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+            StylesTable styles = xssfReader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new CustomException("Uploaded workbook has no sheets");
+            }
+            try (InputStream sheetStream = sheets.next()) {
+                sheetParser.parse(sheetStream, sheets.getSheetPart().getSize(), styles, sharedStrings);
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Unable to read uploaded workbook: " + e.getMessage(), e);
+        } finally {
+            if (opcPackage != null) {
+                opcPackage.revert();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PackageOpener {
+        OPCPackage open() throws IOException, OpenXML4JException;
+    }
+
+    /** Parses the first sheet's XML; {@code sheetSize} is its uncompressed size, or -1 if unknown. */
+    @FunctionalInterface
+    private interface SheetParser {
+        void parse(InputStream sheetStream, long sheetSize, StylesTable styles, ReadOnlySharedStringsTable sharedStrings)
+            throws IOException, SAXException, ParserConfigurationException;
+    }
+
+    /**
+     * Notes the last row of the sheet's {@code <dimension>}, which comes
+     * before the rows. Writers that stream rows, SXSSF among them, often
+     * leave it at {@code A1}.
+     */
+    private static class DimensionCapturingHandler extends XSSFSheetXMLHandler {
+
+        private int lastRow;
+
+        DimensionCapturingHandler(StylesTable styles, ReadOnlySharedStringsTable sharedStrings,
+                SheetContentsHandler rowHandler, DataFormatter formatter) {
+            super(styles, sharedStrings, rowHandler, formatter, false);
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            if ("dimension".equals(localName)) {
+                String ref = attributes.getValue("ref");
+                int separator = ref == null ? -1 : ref.indexOf(':');
+                if (separator >= 0) {
+                    lastRow = new CellReference(ref.substring(separator + 1)).getRow() + 1;
+                }
+            }
+            super.startElement(uri, localName, qName, attributes);
+        }
+
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+    }
+
+    /**
+     * The event API only hands out formatted text. This formatter keeps the
+     * serial number of the last date-formatted cell it formatted, so a
+     * native date cell can be taken as a date without parsing its text.
+     */
+    private static class DateCapturingFormatter extends DataFormatter {
+
+        private boolean dateCaptured;
+        private double dateSerial;
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            dateCaptured = DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value);
+            dateSerial = value;
+            return super.formatRawCellContents(value, formatIndex, formatString);
+        }
+
+        /** True if the cell just reported was a date cell; clears the capture. */
+        boolean takeDate() {
+            boolean captured = dateCaptured;
+            dateCaptured = false;
+            return captured;
+        }
+
+    }
+
+    private static class RowCollector implements SheetContentsHandler {
+
+        private final ColumnMapping columnMapping;
+        private final Consumer<TimesheetRecord> consumer;
+        private final DateCapturingFormatter formatter;
+        private final List<String> values = new ArrayList<>();
+        private TimesheetHeader header;
+        private int nextColumn;
+        private int epochDay;
+
+        RowCollector(ColumnMapping columnMapping, Consumer<TimesheetRecord> consumer, DateCapturingFormatter formatter) {
+            this.columnMapping = columnMapping;
+            this.consumer = consumer;
+            this.formatter = formatter;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            values.clear();
+            nextColumn = 0;
+            epochDay = TimesheetRecord.NO_EPOCH_DAY;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? nextColumn : new CellReference(cellReference).getCol();
+            if (column >= values.size()) {
+                values.addAll(Collections.nCopies(column + 1 - values.size(), null));
+            }
+            values.set(column, formattedValue);
+            nextColumn = column + 1;
+            if (formatter.takeDate() && header != null && header.isDateColumn(column)) {
+                epochDay = SourceDates.fromExcelSerial(formatter.dateSerial);
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (header == null) {
+                header = columnMapping.resolve(values);
+                return;
+            }
+            TimesheetRecord record = header.toRecord(values);
+            record.setEpochDay(epochDay);
+            consumer.accept(record);
+        }
+
+    }
+
+}
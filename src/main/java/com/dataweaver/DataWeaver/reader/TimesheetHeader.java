@@ -0,0 +1,46 @@
+package com.dataweaver.DataWeaver.reader;
+
+import java.util.List;
+
+import com.dataweaver.DataWeaver.model.TimesheetRecord;
+
+/**
+ * Column positions of the source header row, resolved once per upload by
+ * {@link ColumnMapping}.
+ */
+public class TimesheetHeader {
+
+    private final int employeeNameIndex;
+    private final int dateIndex;
+    private final int descriptionIndex;
+    private final int taskHoursIndex;
+    private final int totalHoursIndex;
+
+    TimesheetHeader(int[] columnIndexes) {
+        this.employeeNameIndex = columnIndexes[ColumnMapping.EMPLOYEE_NAME];
+        this.dateIndex = columnIndexes[ColumnMapping.DATE];
+        this.descriptionIndex = columnIndexes[ColumnMapping.DESCRIPTION];
+        this.taskHoursIndex = columnIndexes[ColumnMapping.TASK_HOURS];
+        this.totalHoursIndex = columnIndexes[ColumnMapping.TOTAL_HOURS];
+    }
+
+    public TimesheetRecord toRecord(List<String> values) {
+        return new TimesheetRecord(
+            valueAt(values, employeeNameIndex),
+            valueAt(values, dateIndex),
+            valueAt(values, descriptionIndex),
+            valueAt(values, taskHoursIndex),
+            valueAt(values, totalHoursIndex),
+            TimesheetRecord.NO_EPOCH_DAY
+        );
+    }
+
+    public boolean isDateColumn(int columnIndex) {
+        return columnIndex == dateIndex;
+    }
+
+    private static String valueAt(List<String> values, int columnIndex) {
+        return columnIndex < values.size() ? values.get(columnIndex) : null;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.dataweaver.DataWeaver.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import com.dataweaver.DataWeaver.model.TimesheetRecord;
+
+public interface TimesheetReader {
+
+    /**
+     * Reads the first sheet of the upload and hands every data row below the
+     * header to {@code consumer}, in sheet order.
+     */
+    void read(InputStream inputStream, Consumer<TimesheetRecord> consumer) throws IOException;
+
+    /**
+     * Same as {@link #read(InputStream, Consumer)} for an upload on disk. The
+     * package is opened from the file, so its parts are read on demand
+     * instead of being inflated into heap first.
+     */
+    void read(Path file, Consumer<TimesheetRecord> consumer) throws IOException;
+
+}
@@ -0,0 +1,69 @@
+package com.dataweaver.DataWeaver.reader;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.dataweaver.DataWeaver.model.TimesheetRecord;
+
+import lombok.Getter;
+
+/**
+ * The first data rows of an upload, read to inspect it before it is
+ * processed, and how many rows the whole upload is estimated to have.
+ */
+@Getter
+public class TimesheetSample {
+
+    private final List<TimesheetRecord> records;
+    /** True when the sample is the whole upload, so the row count is exact. */
+    private final boolean complete;
+    private final long estimatedRows;
+
+    private TimesheetSample(List<TimesheetRecord> records, boolean complete, long estimatedRows) {
+        this.records = records;
+        this.complete = complete;
+        this.estimatedRows = estimatedRows;
+    }
+
+    static TimesheetSample complete(List<TimesheetRecord> records) {
+        return new TimesheetSample(records, true, records.size());
+    }
+
+    static TimesheetSample partial(List<TimesheetRecord> records, long estimatedRows) {
+        return new TimesheetSample(records, false, Math.max(records.size(), estimatedRows));
+    }
+
+    /**
+     * Scales the sampled rows by the share of the input they were read
+     * from; a rough count that assumes later rows are about as long.
+     */
+    static TimesheetSample extrapolated(List<TimesheetRecord> records, long bytesRead, long totalBytes) {
+        if (bytesRead <= 0 || totalBytes <= 0) {
+            return partial(records, records.size());
+        }
+        return partial(records, Math.round((double) records.size() * totalBytes / bytesRead));
+    }
+
+    /**
+     * Collects records into {@code records} and stops the reader with
+     * {@link SampleFull} once there are {@code maxRows} of them.
+     */
+    static Consumer<TimesheetRecord> collector(List<TimesheetRecord> records, int maxRows) {
+        return record -> {
+            records.add(record);
+            if (records.size() >= maxRows) {
+                throw new SampleFull();
+            }
+        };
+    }
+
+    /** Thrown through the reader to stop it; carries no stack trace. */
+    static class SampleFull extends RuntimeException {
+
+        SampleFull() {
+            super(null, null, false, false);
+        }
+
+    }
+
+}
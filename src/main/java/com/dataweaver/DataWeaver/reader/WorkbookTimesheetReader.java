@@ -0,0 +1,102 @@
+package com.dataweaver.DataWeaver.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.stereotype.Component;
+
+import com.dataweaver.DataWeaver.model.TimesheetRecord;
+
+/**
+ * Reads the upload through a fully loaded {@link XSSFWorkbook}. Kept as a
+ * fallback for workbooks the event API cannot handle.
+ */
+@Component
+public class WorkbookTimesheetReader implements TimesheetReader {
+
+    private final ColumnMapping columnMapping;
+
+    public WorkbookTimesheetReader(ColumnMapping columnMapping) {
+        this.columnMapping = columnMapping;
+    }
+
+    @Override
+    public void read(InputStream inputStream, Consumer<TimesheetRecord> consumer) throws IOException {
+        try (Workbook workbook = new XSSFWorkbook(inputStream)) {
+            readFirstSheet(workbook, consumer);
+        }
+    }
+
+    @Override
+    public void read(Path file, Consumer<TimesheetRecord> consumer) throws IOException {
+        OPCPackage opcPackage;
+        try {
+            opcPackage = OPCPackage.open(file.toFile(), PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new IOException("Unable to read uploaded workbook: " + e.getMessage(), e);
+        }
+        // closing the workbook would try to save a read-only package; reverting just releases the file
+        try {
+            readFirstSheet(new XSSFWorkbook(opcPackage), consumer);
+        } finally {
+            opcPackage.revert();
+        }
+    }
+
+    private void readFirstSheet(Workbook workbook, Consumer<TimesheetRecord> consumer) {
+        Sheet sourceSheet = workbook.getSheetAt(0);
+        TimesheetHeader header = null;
+        List<String> values = new ArrayList<>();
+
+        for (Row row: sourceSheet) {
+            values.clear();
+            int epochDay = TimesheetRecord.NO_EPOCH_DAY;
+            for (int column = 0; column < row.getLastCellNum(); column++) {
+                Cell cell = row.getCell(column);
+                values.add(cell == null ? null : getCellValue(cell));
+                if (header != null && header.isDateColumn(column) && isDateCell(cell)) {
+                    epochDay = SourceDates.fromExcelSerial(cell.getNumericCellValue());
+                }
+            }
+            if (header == null) {
+                header = columnMapping.resolve(values);
+                continue;
+            }
+            TimesheetRecord record = header.toRecord(values);
+            record.setEpochDay(epochDay);
+            consumer.accept(record);
+        }
+    }
+
+    private boolean isDateCell(Cell cell) {
+        return cell != null && cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell);
+    }
+
+    private String getCellValue(Cell cell) {
+        switch (cell.getCellType()) {
+            case NUMERIC:
+                if (DateUtil.isCellDateFormatted(cell)) {
+                    return cell.getDateCellValue().toString();
+                } else {
+                    return String.valueOf(cell.getNumericCellValue());
+                }
+            default:
+                return cell.toString();
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.exception.RequestRejectedException;
+import com.dataweaver.DataWeaver.model.AdmissionDecision;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caps the estimated cost of the uploads being read and rendered at once
+ * at {@code data-weaver.admission.max-concurrent-cost}, with costs taken
+ * from {@link UploadInspector}. Unlike {@link UploadBudget}, an upload that
+ * does not fit waits, in arrival order, for up to
+ * {@code data-weaver.admission.max-wait}; it is only turned away at once
+ * when too many are already waiting or it could never fit.
+ */
+@Component
+public class AdmissionControl {
+
+    private final int maxConcurrentCost;
+    private final int maxWaiting;
+    private final Duration maxWait;
+    private final Semaphore budget;
+
+    public AdmissionControl(DataWeaverProperties properties, MeterRegistry meterRegistry) {
+        DataWeaverProperties.Admission admission = properties.getAdmission();
+        if (admission.getMaxConcurrentCost() <= 0) {
+            throw new IllegalStateException("data-weaver.admission.max-concurrent-cost must be positive");
+        }
+        this.maxConcurrentCost = admission.getMaxConcurrentCost();
+        this.maxWaiting = admission.getMaxWaiting();
+        this.maxWait = admission.getMaxWait();
+        this.budget = new Semaphore(maxConcurrentCost, true);
+        Gauge.builder("dataweaver.admission.cost", budget, permits -> maxConcurrentCost - permits.availablePermits())
+            .description("Estimated cost, in rows, of the uploads admitted and not yet finished")
+            .register(meterRegistry);
+        Gauge.builder("dataweaver.admission.waiting", budget, Semaphore::getQueueLength)
+            .description("Uploads waiting for admission")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Holds {@code cost} of the budget until the returned ticket is closed,
+     * waiting for it if needed. Rejects with 413 when the cost is over the
+     * whole budget and with 429 when the wait queue is full or the wait
+     * times out. Closing more than once is harmless.
+     */
+    public Ticket admit(long cost) throws IOException {
+        if (cost > maxConcurrentCost) {
+            throw new RequestRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "Upload is estimated at " + cost + " rows of work, more than the " + maxConcurrentCost
+                    + " that can be processed at once");
+        }
+        int permits = permits(cost);
+        if (budget.getQueueLength() >= maxWaiting) {
+            throw new RequestRejectedException(HttpStatus.TOO_MANY_REQUESTS, "Too many uploads waiting, retry later");
+        }
+        try {
+            if (!budget.tryAcquire(permits, maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new RequestRejectedException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Timed out waiting for uploads in progress to finish, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for admission", e);
+        }
+        return new Ticket(permits);
+    }
+
+    /** What {@link #admit} would do with {@code cost} now, without holding anything. */
+    public AdmissionDecision preview(long cost) {
+        if (cost > maxConcurrentCost) {
+            return AdmissionDecision.REJECT;
+        }
+        if (!budget.hasQueuedThreads() && budget.availablePermits() >= permits(cost)) {
+            return AdmissionDecision.ADMIT;
+        }
+        return AdmissionDecision.QUEUE;
+    }
+
+    // even an upload estimated at nothing holds a permit while it runs
+    private static int permits(long cost) {
+        return (int) Math.max(cost, 1);
+    }
+
+    public class Ticket implements AutoCloseable {
+
+        private final int permits;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Ticket(int permits) {
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                budget.release(permits);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.dataweaver.DataWeaver.service;
+
+import com.dataweaver.DataWeaver.model.TimesheetIndex;
+
+import lombok.Getter;
+
+/**
+ * An upload that was admitted and read, holding its share of the
+ * {@link UploadBudget} and of the {@link AdmissionControl} budget until
+ * closed. Closing more than once is harmless.
+ */
+class AdmittedTimesheet implements AutoCloseable {
+
+    @Getter
+    private final TimesheetIndex index;
+    private final UploadBudget.Reservation reservation;
+    // null when admission control is disabled
+    private final AdmissionControl.Ticket ticket;
+
+    AdmittedTimesheet(TimesheetIndex index, UploadBudget.Reservation reservation, AdmissionControl.Ticket ticket) {
+        this.index = index;
+        this.reservation = reservation;
+        this.ticket = ticket;
+    }
+
+    @Override
+    public void close() {
+        if (ticket != null) {
+            ticket.close();
+        }
+        reservation.close();
+    }
+
+}
@@ -0,0 +1,334 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.dto.BatchFileResult;
+import com.dataweaver.DataWeaver.dto.BatchManifest;
+import com.dataweaver.DataWeaver.dto.GenerationOptions;
+import com.dataweaver.DataWeaver.exception.RequestRejectedException;
+import com.dataweaver.DataWeaver.model.TimesheetIndex;
+import com.dataweaver.DataWeaver.model.UploadFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+
+/**
+ * Runs generate-excel over many uploads in one request. Uploads, including
+ * the contents of uploaded zips, are spooled to disk first; the response is
+ * a zip that gets each output workbook as soon as it is done, followed by a
+ * {@code manifest.json} listing every file's outcome. A file that fails is
+ * reported in the manifest and does not stop the rest of the batch.
+ */
+@Service
+public class BatchService {
+
+    public static final String MANIFEST_ENTRY = "manifest.json";
+
+    private static final Logger log = LoggerFactory.getLogger(BatchService.class);
+    private static final String ZIP_EXTENSION = ".zip";
+
+    private final DataWeaverService dataWeaverService;
+    private final PipelineMetrics pipelineMetrics;
+    private final ObjectMapper objectMapper;
+    private final DataWeaverProperties.Batch batchProperties;
+    private final ExecutorService batchPool;
+
+    public BatchService(DataWeaverService dataWeaverService, PipelineMetrics pipelineMetrics, ObjectMapper objectMapper,
+            DataWeaverProperties properties, WorkerThreads workerThreads) throws IOException {
+        this.dataWeaverService = dataWeaverService;
+        this.pipelineMetrics = pipelineMetrics;
+        this.objectMapper = objectMapper;
+        this.batchProperties = properties.getBatch();
+        this.batchPool = Executors.newFixedThreadPool(batchProperties.getParallelism(),
+            workerThreads.factory("batch-worker-"));
+        Files.createDirectories(batchProperties.getSpoolDirectory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchPool.shutdownNow();
+    }
+
+    /**
+     * Copies the uploads into a spool directory of their own, unpacking
+     * zips, so the batch can be processed after the request's multipart
+     * files are gone. {@code parallelism} is capped at
+     * {@code data-weaver.batch.parallelism}.
+     */
+    public SpooledBatch spool(List<MultipartFile> files, Integer parallelism, GenerationOptions options)
+            throws IOException {
+        if (files == null || files.isEmpty()) {
+            throw new RequestRejectedException(HttpStatus.BAD_REQUEST, "No files uploaded");
+        }
+        int maxParallelism = batchProperties.getParallelism();
+        int batchParallelism = parallelism == null ? maxParallelism : Math.max(1, Math.min(parallelism, maxParallelism));
+
+        Path directory = Files.createTempDirectory(batchProperties.getSpoolDirectory(), "batch-");
+        SpooledBatch batch = new SpooledBatch(directory, dataWeaverService.resolveOptions(options), batchParallelism);
+        try {
+            long[] extractedBytes = {0};
+            for (MultipartFile file: files) {
+                String name = file.getOriginalFilename() == null ? "upload.xlsx" : file.getOriginalFilename();
+                try (InputStream inputStream = file.getInputStream()) {
+                    if (name.toLowerCase(Locale.ROOT).endsWith(ZIP_EXTENSION)) {
+                        unpack(new ZipInputStream(inputStream), batch, extractedBytes);
+                    } else {
+                        addInput(batch, name, UploadFormat.detect(name, file.getContentType()), inputStream, null);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteRecursively(directory);
+            throw e;
+        }
+
+        if (batch.getInputs().isEmpty()) {
+            deleteRecursively(directory);
+            throw new RequestRejectedException(HttpStatus.BAD_REQUEST, "The uploaded zip files contain no files");
+        }
+        return batch;
+    }
+
+    /**
+     * Processes the spooled batch, writing the result zip to
+     * {@code outputStream}. At most the batch's parallelism files are in
+     * progress at once. The spool directory is removed afterwards, even if
+     * the client goes away part way.
+     */
+    public void writeBatch(SpooledBatch batch, OutputStream outputStream) throws IOException {
+        List<Future<BatchInput>> submitted = new ArrayList<>();
+        try (PipelineMetrics.InFlightRequest request = pipelineMetrics.enterRequest()) {
+            CompletionService<BatchInput> completion = new ExecutorCompletionService<>(batchPool);
+            Iterator<BatchInput> pending = batch.getInputs().iterator();
+            int running = 0;
+            while (running < batch.getParallelism() && pending.hasNext()) {
+                BatchInput input = pending.next();
+                submitted.add(completion.submit(() -> process(input, batch.getOptions())));
+                running++;
+            }
+
+            ZipOutputStream zip = new ZipOutputStream(outputStream);
+            List<BatchFileResult> results = new ArrayList<>();
+            int succeeded = 0;
+            while (running > 0) {
+                BatchInput done = awaitNext(completion);
+                running--;
+                if (pending.hasNext()) {
+                    BatchInput input = pending.next();
+                    submitted.add(completion.submit(() -> process(input, batch.getOptions())));
+                    running++;
+                }
+
+                BatchFileResult result = done.getResult();
+                if (result.isSucceeded()) {
+                    zip.putNextEntry(new ZipEntry(result.getOutput()));
+                    Files.copy(done.getOutputFile(), zip);
+                    zip.closeEntry();
+                    Files.deleteIfExists(done.getOutputFile());
+                    succeeded++;
+                }
+                results.add(result);
+            }
+
+            zip.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+            zip.write(objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValueAsBytes(new BatchManifest(succeeded, results.size() - succeeded, results)));
+            zip.closeEntry();
+            zip.finish();
+        } finally {
+            submitted.forEach(future -> future.cancel(true));
+            deleteRecursively(batch.getDirectory());
+        }
+    }
+
+    private BatchInput process(BatchInput input, GenerationOptions options) {
+        long started = System.nanoTime();
+        String error = null;
+        try {
+            TimesheetIndex index = dataWeaverService.readTimesheet(input.getFile(), input.getFormat());
+            try (OutputStream outputStream = Files.newOutputStream(input.getOutputFile())) {
+                dataWeaverService.writeReport(index, options, outputStream);
+            }
+        } catch (Exception e) {
+            log.warn("Batch file {} failed: {}", input.getSource(), e.getMessage());
+            error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            deleteQuietly(input.getOutputFile());
+        } finally {
+            deleteQuietly(input.getFile());
+        }
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        input.setResult(new BatchFileResult(input.getSource(), error == null ? input.getOutputName() : null,
+            error == null, error, durationMillis));
+        return input;
+    }
+
+    private BatchInput awaitNext(CompletionService<BatchInput> completion) throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while processing batch", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Batch worker failed", e.getCause());
+        }
+    }
+
+    private void unpack(ZipInputStream zip, SpooledBatch batch, long[] extractedBytes) throws IOException {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            String name = entry.getName();
+            if (entry.isDirectory() || name.startsWith("__MACOSX/") || baseName(name).startsWith(".")) {
+                continue;
+            }
+            addInput(batch, name, UploadFormat.detect(name, null), zip, extractedBytes);
+        }
+    }
+
+    private void addInput(SpooledBatch batch, String source, UploadFormat format, InputStream inputStream,
+            long[] extractedBytes) throws IOException {
+        List<BatchInput> inputs = batch.getInputs();
+        if (inputs.size() == batchProperties.getMaxFiles()) {
+            throw new RequestRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "A batch may contain at most " + batchProperties.getMaxFiles() + " files");
+        }
+        int number = inputs.size() + 1;
+        BatchInput input = new BatchInput(source, format, batch.uniqueOutputName(source),
+            batch.getDirectory().resolve(number + ".upload"), batch.getDirectory().resolve(number + batch.getOptions().getFormat().getExtension()));
+        try (OutputStream outputStream = Files.newOutputStream(input.getFile())) {
+            if (extractedBytes == null) {
+                inputStream.transferTo(outputStream);
+            } else {
+                copyWithinLimit(inputStream, outputStream, extractedBytes);
+            }
+        }
+        inputs.add(input);
+    }
+
+    // sizes declared in a zip can't be trusted, so count what is actually unpacked
+    private void copyWithinLimit(InputStream inputStream, OutputStream outputStream, long[] extractedBytes)
+            throws IOException {
+        long limit = batchProperties.getMaxExtractedSize().toBytes();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            extractedBytes[0] += read;
+            if (extractedBytes[0] > limit) {
+                throw new RequestRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Uploaded zip files unpack to more than " + batchProperties.getMaxExtractedSize());
+            }
+            outputStream.write(buffer, 0, read);
+        }
+    }
+
+    private static String baseName(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted((a, b) -> b.getNameCount() - a.getNameCount()).forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Uploads of one batch, spooled and waiting to be processed.
+     */
+    @Getter
+    public static class SpooledBatch {
+
+        private final Path directory;
+        private final GenerationOptions options;
+        private final int parallelism;
+        private final List<BatchInput> inputs = new ArrayList<>();
+        private final Set<String> outputNames = new HashSet<>();
+
+        SpooledBatch(Path directory, GenerationOptions options, int parallelism) {
+            this.directory = directory;
+            this.options = options;
+            this.parallelism = parallelism;
+            // the manifest is written last, so an output named like it would end the zip early
+            outputNames.add(MANIFEST_ENTRY);
+        }
+
+        /**
+         * {@code team-a/march.xlsx} becomes {@code march.xlsx}, or {@code march-2.xlsx} if taken;
+         * the extension is the output format's.
+         */
+        private String uniqueOutputName(String source) {
+            String name = baseName(source);
+            int extension = name.lastIndexOf('.');
+            String stem = extension > 0 ? name.substring(0, extension) : name;
+            String outputExtension = options.getFormat().getExtension();
+            String candidate = stem + outputExtension;
+            for (int suffix = 2; !outputNames.add(candidate); suffix++) {
+                candidate = stem + "-" + suffix + outputExtension;
+            }
+            return candidate;
+        }
+
+    }
+
+    @Getter
+    static class BatchInput {
+
+        private final String source;
+        private final UploadFormat format;
+        private final String outputName;
+        private final Path file;
+        private final Path outputFile;
+        private volatile BatchFileResult result;
+
+        BatchInput(String source, UploadFormat format, String outputName, Path file, Path outputFile) {
+            this.source = source;
+            this.format = format;
+            this.outputName = outputName;
+            this.file = file;
+            this.outputFile = outputFile;
+        }
+
+        void setResult(BatchFileResult result) {
+            this.result = result;
+        }
+
+    }
+
+}
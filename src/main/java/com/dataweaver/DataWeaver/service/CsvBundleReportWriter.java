@@ -0,0 +1,124 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.stereotype.Component;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.model.EmployeeTimesheet;
+import com.dataweaver.DataWeaver.model.OutputFormat;
+import com.dataweaver.DataWeaver.service.PipelineMetrics.Stage;
+import com.dataweaver.DataWeaver.writer.DayRow;
+import com.dataweaver.DataWeaver.writer.EmployeeSheet;
+import com.dataweaver.DataWeaver.writer.EmployeeSheetBuilder;
+import com.dataweaver.DataWeaver.writer.HoursText;
+import com.dataweaver.DataWeaver.writer.MonthSkeleton;
+import com.dataweaver.DataWeaver.writer.SheetNames;
+import com.dataweaver.DataWeaver.writer.SheetPlan;
+
+/**
+ * Writes the report as a zip of CSV files named like the workbook's sheets:
+ * {@code Summary.csv} and one file per employee sheet. Rows are built and
+ * written one sheet at a time, straight into the zip. Dates are ISO
+ * ({@code 2025-01-31}) and each day row says whether it is a workday,
+ * weekend or leave, which the workbook shows by colour.
+ */
+@Component
+public class CsvBundleReportWriter implements ReportWriter {
+
+    private static final String[] SUMMARY_COLUMNS = {"Names", "Hours", "New/Existing"};
+    private static final String DAY_KIND_COLUMN = "Day Type";
+    private static final String CSV_EXTENSION = ".csv";
+
+    private final EmployeeSheetBuilder employeeSheetBuilder;
+    private final int compressionLevel;
+
+    public CsvBundleReportWriter(DataWeaverProperties properties, EmployeeSheetBuilder employeeSheetBuilder) {
+        this.employeeSheetBuilder = employeeSheetBuilder;
+        this.compressionLevel = properties.getOutput().getCompressionLevel();
+        XlsxReportWriter.checkCompressionLevel(compressionLevel);
+    }
+
+    @Override
+    public OutputFormat getFormat() {
+        return OutputFormat.CSV;
+    }
+
+    @Override
+    public void write(Report report, OutputStream outputStream) throws IOException {
+        report.getTimer().switchTo(Stage.SUMMARY);
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        zip.setLevel(compressionLevel);
+        // closing the writer would close the caller's stream, so it is only flushed
+        Writer writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+
+        SheetNames sheetNames = new SheetNames();
+        zip.putNextEntry(new ZipEntry(sheetNames.unique("Summary") + CSV_EXTENSION));
+        writeLine(writer, SUMMARY_COLUMNS);
+        for (EmployeeTimesheet employee: report.getIndex().getEmployees()) {
+            writeLine(writer, employee.getName(), HoursText.format(report.summaryHours(employee)), "Existing");
+        }
+        writeLine(writer, "Total Hours", Integer.toString(report.summaryTotalHours()), "");
+        writer.flush();
+        zip.closeEntry();
+
+        report.getTimer().switchTo(Stage.SHEETS);
+        List<SheetPlan> plans = employeeSheetBuilder.plan(report.getIndex(), report.getFirstDay(),
+            report.getLastDay(), report.getOptions().getSheetLayout(), sheetNames);
+        String[] columns = new String[EmployeeSheetBuilder.COLUMNS.length + 1];
+        System.arraycopy(EmployeeSheetBuilder.COLUMNS, 0, columns, 0, EmployeeSheetBuilder.COLUMNS.length);
+        columns[columns.length - 1] = DAY_KIND_COLUMN;
+        int sheetsWritten = 0;
+        for (SheetPlan plan: plans) {
+            EmployeeSheet employeeSheet = employeeSheetBuilder.build(plan);
+            MonthSkeleton skeleton = employeeSheet.getSkeleton();
+            List<DayRow> rows = employeeSheet.getRows();
+            zip.putNextEntry(new ZipEntry(employeeSheet.getSheetName() + CSV_EXTENSION));
+            writeLine(writer, columns);
+            for (int day = 0; day < rows.size(); day++) {
+                DayRow row = rows.get(day);
+                writeLine(writer, employeeSheet.getEmployeeName(), skeleton.isoDate(day),
+                    row.getTitle(), row.getDescription(),
+                    row.hasProjectTime() ? HoursText.format(row.getProjectTime()) : "", row.getKind().name());
+            }
+            writer.flush();
+            zip.closeEntry();
+            report.getProgressListener().onProgress(++sheetsWritten, plans.size());
+        }
+        zip.finish();
+    }
+
+    private void writeLine(Writer writer, String... values) throws IOException {
+        for (int column = 0; column < values.length; column++) {
+            if (column > 0) {
+                writer.write(',');
+            }
+            writeValue(writer, values[column]);
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeValue(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+}
@@ -2,460 +2,400 @@ package com.dataweaver.DataWeaver.service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.time.DayOfWeek;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.Arrays;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
-
-import org.apache.poi.ss.usermodel.BorderStyle;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.DateUtil;
-import org.apache.poi.ss.usermodel.FillPatternType;
-import org.apache.poi.ss.usermodel.HorizontalAlignment;
-import org.apache.poi.ss.usermodel.IndexedColors;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.VerticalAlignment;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.config.IngestionMode;
+import com.dataweaver.DataWeaver.dto.GenerationOptions;
+import com.dataweaver.DataWeaver.dto.UploadInspection;
+import com.dataweaver.DataWeaver.exception.CustomException;
+import com.dataweaver.DataWeaver.exception.RequestRejectedException;
+import com.dataweaver.DataWeaver.model.EmployeeTimesheet;
+import com.dataweaver.DataWeaver.model.OutputFormat;
+import com.dataweaver.DataWeaver.model.TimesheetIndex;
+import com.dataweaver.DataWeaver.model.TimesheetRecord;
+import com.dataweaver.DataWeaver.model.UploadFormat;
+import com.dataweaver.DataWeaver.reader.DelimitedTimesheetReader;
+import com.dataweaver.DataWeaver.reader.HoursParser;
+import com.dataweaver.DataWeaver.reader.HoursRounding;
+import com.dataweaver.DataWeaver.reader.SourceDates;
+import com.dataweaver.DataWeaver.reader.StreamingTimesheetReader;
+import com.dataweaver.DataWeaver.reader.TimesheetReader;
+import com.dataweaver.DataWeaver.reader.WorkbookTimesheetReader;
+import com.dataweaver.DataWeaver.service.PipelineMetrics.Stage;
+
+
+/**
+ * Turns an uploaded team timesheet into the summary and per-employee
+ * timesheets, written by the {@link ReportWriter} for the requested format.
+ * Stage methods that are package-private rather than private are timed
+ * individually by the JMH benchmarks in {@code src/jmh/java}.
+ */
 @Service
 public class DataWeaverService {
 
-    public byte[] generateExcel(MultipartFile file) throws IOException {
-        Workbook workbook = new XSSFWorkbook(file.getInputStream());
-        Sheet sourceSheet = workbook.getSheetAt(0);
-
-        // DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MMM-yyyy");
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
-        Cell cell = sourceSheet.getRow(1).getCell(3);
-        LocalDate date = LocalDate.parse(cell.toString(), formatter);
-
-        int month = date.getMonth().getValue();
-        int year = date.getYear();
-
-
-        int rowCount = sourceSheet.getPhysicalNumberOfRows();
-        
-
-        for (int rowIndex = 1; rowIndex < rowCount; rowIndex++) {
-            Cell dateCell = findDateFromSheet(sourceSheet, rowIndex);
-            String inputDate = dateCell.toString();
-            // Todo: convert from V2 to V1 format
-            DateTimeFormatter inputFormatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
-            LocalDate localDate = LocalDate.parse(inputDate, inputFormatter);
-
-            DateTimeFormatter outputFormatter = DateTimeFormatter.ofPattern("dd-MMM-yyyy");
-            String formattedDateStr = localDate.format(outputFormatter);
-            dateCell.setCellValue(formattedDateStr);
+    private final DataWeaverProperties properties;
+    private final StreamingTimesheetReader streamingTimesheetReader;
+    private final WorkbookTimesheetReader workbookTimesheetReader;
+    private final DelimitedTimesheetReader delimitedTimesheetReader;
+    private final HoursRounding hoursRounding;
+    private final Map<OutputFormat, ReportWriter> reportWriters = new EnumMap<>(OutputFormat.class);
+    private final ResultCache resultCache;
+    private final PipelineMetrics pipelineMetrics;
+    private final UploadBudget uploadBudget;
+    private final UploadInspector uploadInspector;
+    private final AdmissionControl admissionControl;
+    private final ProcessingLimiter processingLimiter;
+    private final long spoolThreshold;
+
+    public DataWeaverService(DataWeaverProperties properties, StreamingTimesheetReader streamingTimesheetReader,
+            WorkbookTimesheetReader workbookTimesheetReader, DelimitedTimesheetReader delimitedTimesheetReader,
+            HoursRounding hoursRounding, List<ReportWriter> reportWriters, ResultCache resultCache, PipelineMetrics pipelineMetrics,
+            UploadBudget uploadBudget, UploadInspector uploadInspector, AdmissionControl admissionControl,
+            ProcessingLimiter processingLimiter, MultipartProperties multipartProperties) throws IOException {
+        this.properties = properties;
+        this.streamingTimesheetReader = streamingTimesheetReader;
+        this.workbookTimesheetReader = workbookTimesheetReader;
+        this.delimitedTimesheetReader = delimitedTimesheetReader;
+        this.hoursRounding = hoursRounding;
+        for (ReportWriter reportWriter: reportWriters) {
+            this.reportWriters.put(reportWriter.getFormat(), reportWriter);
         }
-
-        TreeMap<String, Double> employeeNames = findAllEmployeeNames(sourceSheet);
-        
-        // for (Map.Entry<String, Double> entry: employeeNames.entrySet()) {
-        //     System.out.println(entry.getKey() + " " + entry.getValue());
-        // }
-
-        Workbook outputWorkbook = new XSSFWorkbook();
-        CellStyle borderStyle = outputWorkbook.createCellStyle();
-        borderStyle.setBorderTop(BorderStyle.MEDIUM);
-        borderStyle.setBorderBottom(BorderStyle.MEDIUM);
-        borderStyle.setBorderLeft(BorderStyle.MEDIUM);
-        borderStyle.setBorderRight(BorderStyle.MEDIUM);
-
-        borderStyle.setAlignment(HorizontalAlignment.CENTER);
-        borderStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-        borderStyle.setWrapText(true);
-
-        addSummaryPage(sourceSheet, outputWorkbook, employeeNames, borderStyle);
-        addEachTimeSheet(outputWorkbook, employeeNames, sourceSheet, month, year, borderStyle);
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        outputWorkbook.write(outputStream);
-        byte[] outputBytes = outputStream.toByteArray();
-
-        return outputBytes;
-    }
-
-    private void addSummaryPage(Sheet sourceSheet, Workbook outputWorkbook, Map<String, Double> employeeNames, CellStyle borderStyle) {
-        Sheet outputSheet = outputWorkbook.createSheet("Summary");
-        String[] summaryColumns = {"Names", "Hours", "New/Existing"};
-        addColumns(summaryColumns, outputSheet);
-        fillSummarySheet(sourceSheet, outputSheet, employeeNames);
-        fitColumnContent(summaryColumns.length, outputSheet);
-        addBorders(outputSheet, borderStyle, summaryColumns.length);
-        applyColour(outputWorkbook, outputSheet, summaryColumns.length, 0, IndexedColors.LIGHT_BLUE.getIndex());
+        this.resultCache = resultCache;
+        this.pipelineMetrics = pipelineMetrics;
+        this.uploadBudget = uploadBudget;
+        this.uploadInspector = uploadInspector;
+        this.admissionControl = admissionControl;
+        this.processingLimiter = processingLimiter;
+        // the container keeps parts up to this size in memory and writes larger ones to disk
+        this.spoolThreshold = multipartProperties.getFileSizeThreshold().toBytes();
+        Files.createDirectories(properties.getUploads().getSpoolDirectory());
     }
 
-    private void addEachTimeSheet(Workbook outputWorkbook, Map<String, Double> employeeNames, Sheet sourceSheet, int month, int year, CellStyle style) {
-        String[] columns = {"Name", "Date", "Title", "Description", "Project Time"};
-        for (String name: employeeNames.keySet()) {
-            Sheet currentSheet = outputWorkbook.createSheet(name);
-            addColumns(columns, currentSheet);
-            addEachPersonSheetData(outputWorkbook, style, sourceSheet, currentSheet, name, month, year, columns.length);
-            fitColumnContent(columns.length, currentSheet);
-            addBorders(currentSheet, style, columns.length);
-            applyColour(outputWorkbook, currentSheet, columns.length, 0, IndexedColors.LIGHT_BLUE.getIndex());
-            updateWeekendColour(outputWorkbook, currentSheet, columns.length);
-            updateDateFormat(currentSheet);
-        } 
-    }
+    public byte[] generateExcel(MultipartFile file, GenerationOptions options) throws IOException {
+        try (PipelineMetrics.InFlightRequest request = pipelineMetrics.enterRequest()) {
+            GenerationOptions resolvedOptions = resolveOptions(options);
+            String cacheKey = resultCache.keyFor(file, resolvedOptions.toCacheKey());
+            Optional<ResultCache.CachedResult> cached = resultCache.get(cacheKey);
+            if (cached.isPresent()) {
+                try (ResultCache.CachedResult result = cached.get()) {
+                    return result.toBytes();
+                }
+            }
 
-    private String convertDateFormat(String dateString) {
-        SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd");
-        SimpleDateFormat outputFormat = new SimpleDateFormat("MMM dd, yyyy");
-        Date date = null;
-        try {
-            date = inputFormat.parse(dateString);
-        } catch (Exception e) {
-            e.printStackTrace();
+            byte[] outputBytes;
+            try (AdmittedTimesheet admitted = readAdmitted(file)) {
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                writeReport(admitted.getIndex(), resolvedOptions, outputStream);
+                outputBytes = outputStream.toByteArray();
+            }
+            resultCache.put(cacheKey, resolvedOptions.getFormat(), outputBytes);
+            return outputBytes;
         }
-        return outputFormat.format(date);
     }
 
-    private void updateDateFormat(Sheet sheet) {
-        boolean isFirstRow = true;
-        for (Row row: sheet) {
-            if (isFirstRow) {
-                isFirstRow = false;
-                continue;
-            }
-            Cell dateCell = row.getCell(1);
-            dateCell.setCellValue(convertDateFormat(dateCell.toString()));
-
+    /**
+     * Returns the workbook for an upload ready to be streamed: cached bytes
+     * when the same upload was processed recently, otherwise the read
+     * timesheet, rendered when written and cached on the way out. The
+     * request stays in flight until the returned source has been written.
+     */
+    public ExcelSource prepareExcel(MultipartFile file, GenerationOptions options) throws IOException {
+        PipelineMetrics.InFlightRequest request = pipelineMetrics.enterRequest();
+        try {
+            ExcelSource source = prepareUntracked(file, options);
+            return outputStream -> {
+                try {
+                    source.writeTo(outputStream);
+                } finally {
+                    request.close();
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            request.close();
+            throw e;
         }
     }
 
-    private void addBorders(Sheet sheet, CellStyle style, int totalColumns) {
-        for (Row row: sheet) {
-            for (int column = 0; column < totalColumns; column++) {
-                if (row.getCell(column) != null) {
-                    row.getCell(column).setCellStyle(style);
+    private ExcelSource prepareUntracked(MultipartFile file, GenerationOptions options) throws IOException {
+        GenerationOptions resolvedOptions = resolveOptions(options);
+        String cacheKey = resultCache.keyFor(file, resolvedOptions.toCacheKey());
+        Optional<ResultCache.CachedResult> cached = resultCache.get(cacheKey);
+        if (cached.isPresent()) {
+            ResultCache.CachedResult result = cached.get();
+            return outputStream -> {
+                try (result) {
+                    result.writeTo(outputStream);
                 }
-            }
+            };
         }
-    }
 
-    private void updateWeekendColour(Workbook workbook, Sheet sheet, int length) {
-        int rowIndex = 0;
-        for (Row row: sheet) {
-            if (rowIndex == 0) {
-                rowIndex++;
-                continue;
+        // the read timesheet is held until the response is written, so its admission is too
+        AdmittedTimesheet admitted = readAdmitted(file);
+        return outputStream -> {
+            try {
+                resultCache.writeThrough(cacheKey, resolvedOptions.getFormat(), outputStream,
+                    cacheStream -> writeReport(admitted.getIndex(), resolvedOptions, cacheStream));
+            } finally {
+                admitted.close();
             }
-            Cell cell = row.getCell(1);
-            LocalDate date = LocalDate.parse(cell.toString());
-
-            Cell descriptionCell = row.getCell(3);
+        };
+    }
 
-            if (isWeekend(date)) {
-                applyColour(workbook, sheet, length, rowIndex, IndexedColors.GREEN.getIndex());
-            } else if (descriptionCell.toString().equals("")) {
-                descriptionCell.setCellValue("On Leave");
-                applyColour(workbook, sheet, length, rowIndex, IndexedColors.SKY_BLUE.getIndex());
-            }
-            rowIndex++;
+    /**
+     * Fills options the request left unset from the configured defaults.
+     */
+    public GenerationOptions resolveOptions(GenerationOptions options) {
+        GenerationOptions resolved = new GenerationOptions();
+        resolved.setColumnSizing(options.getColumnSizing() != null
+            ? options.getColumnSizing()
+            : properties.getOutput().getColumnSizing());
+        resolved.setSheetLayout(options.getSheetLayout() != null
+            ? options.getSheetLayout()
+            : properties.getOutput().getSheetLayout());
+        if (options.getFrom() != null && options.getTo() != null && options.getFrom().isAfter(options.getTo())) {
+            throw new RequestRejectedException(HttpStatus.BAD_REQUEST, "'from' must not be after 'to'");
         }
+        resolved.setFrom(options.getFrom());
+        resolved.setTo(options.getTo());
+        resolved.setFormat(options.getFormat() != null ? options.getFormat() : OutputFormat.XLSX);
+        return resolved;
     }
 
-    private void applyColour(Workbook outputWorkbook, Sheet sheet, int length, int rowIndex, short colourIndex) {
-        CellStyle style = outputWorkbook.createCellStyle();
-        style.setBorderTop(BorderStyle.MEDIUM);
-        style.setBorderBottom(BorderStyle.MEDIUM);
-        style.setBorderLeft(BorderStyle.MEDIUM);
-        style.setBorderRight(BorderStyle.MEDIUM);
-        style.setAlignment(HorizontalAlignment.CENTER);
-        style.setVerticalAlignment(VerticalAlignment.CENTER);
-        style.setWrapText(true);
-        style.setFillForegroundColor(colourIndex);
-        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-        Row firstRow = sheet.getRow(rowIndex);
-        for (int column = 0; column < length; column++) {
-            Cell cell = firstRow.getCell(column);
-            cell.setCellStyle(style);
-        }
+    /**
+     * Inspects an upload without reading it in full, and says what admission
+     * control would do with it now.
+     */
+    public UploadInspection inspect(MultipartFile file) throws IOException {
+        UploadInspection inspection = withSpooledUpload(file, this::inspect);
+        inspection.setAdmission(admissionControl.preview(inspection.getEstimatedCost()));
+        return inspection;
     }
 
-    private void fitColumnContent(int length, Sheet sheet) {
-        for (int column = 0; column < length; column++) {
-            sheet.autoSizeColumn(column);
-        }
+    /**
+     * Reads and groups the upload. Kept separate from {@link #writeReport} so
+     * callers streaming the response can reject a bad upload before any
+     * bytes are sent.
+     */
+    public TimesheetIndex readTimesheet(MultipartFile file) throws IOException {
+        return withSpooledUpload(file, this::read);
     }
 
-    private void addEachPersonSheetData(Workbook outputWorkbook, CellStyle style, Sheet sourceSheet, Sheet destinationSheet, String name, int month, int year, int length) {
-        LocalDate firstDate = LocalDate.of(year, month, 1);
-        LocalDate lastDate = firstDate.withDayOfMonth(firstDate.lengthOfMonth());
-
-        int rowIndex = 1;
-        for (LocalDate date = firstDate; !date.isAfter(lastDate); date = date.plusDays(1)) {
-            Row row = destinationSheet.createRow(rowIndex++);
-            Cell nameCell = row.createCell(0);
-            nameCell.setCellValue(name);
-            Cell dateCell = row.createCell(1);
-            
-            dateCell.setCellValue(date.toString());
-
-            Cell titleCell = row.createCell(2);
-
-            Cell descriptionCell = row.createCell(3);
-            Cell projectTimeCell = row.createCell(4);
-            
-            if (!isWeekend(date)) {
-                titleCell.setCellValue("Development");
-            } 
+    /**
+     * Reads the upload once it fits the {@link UploadBudget} and, unless
+     * {@code data-weaver.admission.enabled} is off, once its pre-flight
+     * inspection passes and its estimated cost fits the
+     * {@link AdmissionControl} budget. The returned timesheet holds both
+     * until it is closed.
+     */
+    AdmittedTimesheet readAdmitted(MultipartFile file) throws IOException {
+        UploadBudget.Reservation reservation = uploadBudget.reserve(file.getSize());
+        try {
+            return withSpooledUpload(file, upload -> {
+                AdmissionControl.Ticket ticket = null;
+                if (properties.getAdmission().isEnabled()) {
+                    ticket = admissionControl.admit(inspect(upload).getEstimatedCost());
+                }
+                try {
+                    return new AdmittedTimesheet(read(upload), reservation, ticket);
+                } catch (IOException | RuntimeException e) {
+                    if (ticket != null) {
+                        ticket.close();
+                    }
+                    throw e;
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            reservation.close();
+            throw e;
         }
-        updateDescriptionAndHours(sourceSheet, destinationSheet, name);
     }
 
-    private int findColumnIndex(Sheet sourceSheet, String fieldName) {
-        Row row = sourceSheet.getRow(0);
-        int columnIndex = 0;
-        for (Cell cell: row) {
-            if (cell.toString().equals(fieldName)) {
-                return columnIndex;
+    /**
+     * Runs {@code handler} on an upload. Uploads over
+     * {@code spring.servlet.multipart.file-size-threshold} are already on
+     * disk; they are moved into the upload spool directory and handled as
+     * files, after which {@code file} can no longer be read.
+     */
+    private <T> T withSpooledUpload(MultipartFile file, UploadHandler<T> handler) throws IOException {
+        UploadFormat format = UploadFormat.detect(file.getOriginalFilename(), file.getContentType());
+        if (file.getSize() > spoolThreshold) {
+            Path spooled = Files.createTempFile(properties.getUploads().getSpoolDirectory(), "upload-", ".tmp");
+            try {
+                // transferTo(File) renames the container's temp file where it can; transferTo(Path) always copies
+                file.transferTo(spooled.toFile());
+                return handler.handle(new Upload(file, spooled, format));
+            } finally {
+                Files.deleteIfExists(spooled);
             }
-            columnIndex++;
         }
-        return -1;
+        return handler.handle(new Upload(file, null, format));
     }
 
-    private String findNameFromSheet(Sheet sourceSheet, int rowIndex) {
-        int colIndex = findColumnIndex(sourceSheet, "Emp Name");
-        return sourceSheet.getRow(rowIndex).getCell(colIndex).toString();
+    @FunctionalInterface
+    private interface UploadHandler<T> {
+        T handle(Upload upload) throws IOException;
     }
 
-    private Cell findDateFromSheet(Sheet sourceSheet, int rowIndex) {
-        int colIndex = findColumnIndex(sourceSheet, "Date");
-        return sourceSheet.getRow(rowIndex).getCell(colIndex);
-    }
-
-    private String findDescriptionFromSheet(Sheet sourceSheet, int rowIndex) {
-        int colIndex = findColumnIndex(sourceSheet, "Description");
-        return sourceSheet.getRow(rowIndex).getCell(colIndex).toString();
-    }
-
-    private Cell findTaskHoursFromSheet(Sheet sourceSheet, int rowIndex) {
-        int colIndex = findColumnIndex(sourceSheet, "Task Hours");
-        return sourceSheet.getRow(rowIndex).getCell(colIndex);
-    }
-
-    private void updateDescriptionAndHours(Sheet sourceSheet, Sheet destinationSheet, String name) {
-        boolean isFirstRow = true;
-        Set<String> allTasks = new HashSet<>();
-
-        int rowCount = sourceSheet.getPhysicalNumberOfRows();
+    /** An upload as a spooled file, or still in the multipart request when {@code spooled} is null. */
+    private static class Upload {
 
-        for (int rowIndex = 1; rowIndex < rowCount; rowIndex++) {
-            Row row = sourceSheet.getRow(rowIndex);
-            if (row == null)    continue;
+        private final MultipartFile file;
+        private final Path spooled;
+        private final UploadFormat format;
 
-            String namePresent = findNameFromSheet(sourceSheet, rowIndex);
-            if (!namePresent.equals(name)) {
-                continue;
-            }
+        Upload(MultipartFile file, Path spooled, UploadFormat format) {
+            this.file = file;
+            this.spooled = spooled;
+            this.format = format;
+        }
 
-            Cell dateCell = findDateFromSheet(sourceSheet, rowIndex);
-            int getDay = getDayFromDate(dateCell.toString());
-            Cell descriptionCell = destinationSheet.getRow(getDay).getCell(3);
-            Cell projectTimeCell = destinationSheet.getRow(getDay).getCell(4);
-
-            String existingTask = descriptionCell.toString();
-            String newTask = findDescriptionFromSheet(sourceSheet, rowIndex);
-            StringBuilder token = new StringBuilder(newTask);
-            token.append("#");
-            token.append(Integer.toString(getDay));
-
-            Double existingHours = 0.0;
-            
-            if (existingTask.length() > 0) {
-                existingHours = findHoursInDouble(projectTimeCell.toString());
-            }
-            
+    }
 
-            if (!allTasks.contains(token.toString())) {
-                allTasks.add(token.toString());
-                if (existingTask.length() > 0) {
-                    existingTask += ", ";
-                }
-                existingTask += newTask;
-            }
-            
-            
-            
-            Cell hoursCell = findTaskHoursFromSheet(sourceSheet, rowIndex);
-            String hours = getCellValue(hoursCell);
-            double hoursDouble = findHoursInDouble(hours);
-            existingHours += hoursDouble;
-            projectTimeCell.setCellValue(Double.toString(existingHours));
-            descriptionCell.setCellValue(existingTask);
+    private UploadInspection inspect(Upload upload) throws IOException {
+        if (upload.spooled != null) {
+            return uploadInspector.inspect(upload.spooled, upload.format);
+        }
+        try (InputStream inputStream = upload.file.getInputStream()) {
+            return uploadInspector.inspect(inputStream, upload.format, upload.file.getSize());
         }
     }
 
-    private int getDayFromDate(String date) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MMM-yyyy");
-        try {
-            LocalDate parsedDate = LocalDate.parse(date, formatter);
-            return parsedDate.getDayOfMonth();
-        } catch (DateTimeParseException e) {
-            System.out.println("Invalid date format: " + date);
-            throw e;
+    private TimesheetIndex read(Upload upload) throws IOException {
+        if (upload.spooled != null) {
+            return readTimesheet(upload.spooled, upload.format);
+        }
+        try (InputStream inputStream = upload.file.getInputStream()) {
+            return readTimesheet(inputStream, upload.format);
         }
     }
 
-    private boolean isWeekend(LocalDate date) {
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
-        return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+    public TimesheetIndex readTimesheet(InputStream inputStream) throws IOException {
+        return readTimesheet(inputStream, UploadFormat.XLSX);
     }
 
-    private void fillSummarySheet(Sheet sourceSheet, Sheet destinationSheet, Map<String, Double> employeeNames) {
-        int rowIndex = 1;
-        int totalHours = 0;
-
-        for (String name: employeeNames.keySet()) {
-            Row row = destinationSheet.createRow(rowIndex++);
-            Cell cell = row.createCell(0);
-            cell.setCellValue(name);
-
-            double hours = employeeNames.get(name);
-            totalHours += hours;
-            Cell hoursCell = row.createCell(1);
-            hoursCell.setCellValue(Double.toString(hours));
-
-            Cell thirdCol = row.createCell(2);
-            thirdCol.setCellValue("Existing");
+    public TimesheetIndex readTimesheet(InputStream inputStream, UploadFormat format) throws IOException {
+        if (format.isDelimited()) {
+            return requireEntries(readIndex(consumer -> delimitedTimesheetReader.read(inputStream, format, consumer)));
         }
-
-        Row blankRow = destinationSheet.createRow(rowIndex++);
-        Cell blankCell = blankRow.createCell(0);
-
-        Cell secondCell = blankRow.createCell(1);
-        Cell thirdCell = blankRow.createCell(2);
-
-        Row totalHoursRow = destinationSheet.createRow(rowIndex++);
-        Cell totalHoursFirstCol = totalHoursRow.createCell(0);
-        totalHoursFirstCol.setCellValue("Total Hours");
-
-        Cell totalHoursSecondCol = totalHoursRow.createCell(1);
-        totalHoursSecondCol.setCellValue(Integer.toString(totalHours));
-
-        Cell blankThirdCol = totalHoursRow.createCell(2);
+        TimesheetReader reader = workbookReader();
+        return requireEntries(readIndex(consumer -> reader.read(inputStream, consumer)));
     }
 
-    private void addColumns(String[] columns, Sheet sheet) {
-        Row row = sheet.createRow(0);
-        int columnIndex = 0;
-        for (String column: columns) {
-            Cell cell = row.createCell(columnIndex++);
-            cell.setCellValue(column);
+    /**
+     * Reads an upload already spooled to disk. Delimited files are
+     * memory-mapped and workbooks opened as files instead of streamed.
+     */
+    public TimesheetIndex readTimesheet(Path file, UploadFormat format) throws IOException {
+        if (format.isDelimited()) {
+            return requireEntries(readIndex(consumer -> delimitedTimesheetReader.read(file, format, consumer)));
         }
+        TimesheetReader reader = workbookReader();
+        return requireEntries(readIndex(consumer -> reader.read(file, consumer)));
     }
 
-    private int findEmployeeNameIndex(Sheet sheet) {
-        Row firstRow = sheet.getRow(0);
-        int columnIndex = 0;
-        for (Cell column: firstRow) {
-            if (column.toString().equals("Emp Name")) {
-                return columnIndex;
-            }
-            columnIndex++;
-        }
-
-        return -1;
+    private TimesheetReader workbookReader() {
+        return properties.getIngestion().getMode() == IngestionMode.WORKBOOK
+            ? workbookTimesheetReader
+            : streamingTimesheetReader;
     }
 
-    private int findTotalHoursIndex(Sheet sheet) {
-        Row firstRow = sheet.getRow(0);
-        int columnIndex = 0;
-        for (Cell column: firstRow) {
-            if (column.toString().equals("Total Hours")) {
-                return columnIndex;
-            }
-            columnIndex++;
+    private TimesheetIndex requireEntries(TimesheetIndex index) {
+        if (index.isEmpty()) {
+            throw new CustomException("Uploaded timesheet has no entries");
         }
-
-        return -1;
+        return index;
     }
 
-    private TreeMap<String, Double> findAllEmployeeNames(Sheet sheet) {
-        TreeMap<String, Double> store = new TreeMap<>();
-        Map<String, Set<Integer>> visited = new HashMap<>();
-        int empNameIndex = findEmployeeNameIndex(sheet);
-        int totalHoursIndex = findTotalHoursIndex(sheet);
-
-        for (Row row: sheet) {
-            Cell cell = row.getCell(empNameIndex);
-            if (cell == null)   continue;
-            Cell hoursCell = row.getCell(totalHoursIndex);
-            String name = cell.toString();
-
-
-            if (cell != null && !name.equals("Emp Name") && hoursCell != null) {
-
-                Cell dateCell = row.getCell(3);
-            
-                int day = getDayFromDate(dateCell.toString());
+    /**
+     * Writes the output in the format of {@code options} straight to
+     * {@code outputStream}.
+     */
+    public void writeReport(TimesheetIndex index, GenerationOptions options, OutputStream outputStream)
+            throws IOException {
+        writeReport(index, options, outputStream, ProgressListener.NONE);
+    }
 
-                if (visited.containsKey(name) && visited.get(name).contains(day)) {
-                    continue;
-                }
-                String hours = getCellValue(hoursCell);
-                double hoursDouble = findHoursInDouble(hours);
-                store.put(name, store.getOrDefault(name, 0.0) + hoursDouble);
-                if (!visited.containsKey(name)) {
-                    visited.put(name, new HashSet<>());
-                }
-                visited.get(name).add(day);
-            }
+    public void writeReport(TimesheetIndex index, GenerationOptions options, OutputStream outputStream,
+            ProgressListener progressListener) throws IOException {
+        GenerationOptions resolvedOptions = resolveOptions(options);
+        // whole months of the upload unless the request narrows or widens the range
+        int firstDay = resolvedOptions.getFrom() != null
+            ? (int) resolvedOptions.getFrom().toEpochDay()
+            : (int) LocalDate.ofEpochDay(index.getFirstDay()).withDayOfMonth(1).toEpochDay();
+        int lastDay = resolvedOptions.getTo() != null
+            ? (int) resolvedOptions.getTo().toEpochDay()
+            : (int) YearMonth.from(LocalDate.ofEpochDay(index.getLastDay())).atEndOfMonth().toEpochDay();
+
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        PipelineMetrics.StageTimer timer = pipelineMetrics.startTimer(Stage.WAIT);
+        String outcome = PipelineMetrics.FAILURE;
+        try {
+            reportWriters.get(resolvedOptions.getFormat()).write(
+                new Report(index, resolvedOptions, firstDay, lastDay, timer, progressListener), countingStream);
+            outcome = PipelineMetrics.SUCCESS;
+        } finally {
+            timer.stop(outcome);
+            pipelineMetrics.recordOutput(outcome, resolvedOptions.getFormat(), countingStream.getCount());
         }
-
-        return store;
     }
 
-    private double findHoursInDouble(String hours) {
-        int index = hours.indexOf(':');
-        if (index != -1) {
-            double result = Double.parseDouble(hours.substring(index - 2, index));
-            int minutes = Integer.parseInt(hours.substring(index + 1, index + 3));
-            if (minutes == 15) {
-                result += 0.3;
-            } else if (minutes == 30) {
-                result += 0.5;
-            } else if (minutes == 45) {
-                result += 0.75;
-            }
-            return result;
+    private TimesheetIndex readIndex(RecordSource source) throws IOException {
+        TimesheetIndex index = new TimesheetIndex();
+        int[] rows = {0};
+        PipelineMetrics.StageTimer timer = pipelineMetrics.startTimer(Stage.WAIT);
+        ProcessingLimiter.Permit permit = processingLimiter.acquire();
+        timer.switchTo(Stage.PARSE);
+        String outcome = PipelineMetrics.FAILURE;
+        try {
+            source.read(record -> {
+                timer.switchTo(Stage.GROUP);
+                rows[0]++;
+                addToIndex(index, record);
+                timer.switchTo(Stage.PARSE);
+            });
+            outcome = PipelineMetrics.SUCCESS;
+        } finally {
+            permit.close();
+            timer.stop(outcome);
+            pipelineMetrics.recordInput(outcome, rows[0], index.getEmployees().size());
         }
+        return index;
+    }
 
-        return Double.parseDouble(hours);
+    /** One of the readers, bound to the upload it reads. */
+    @FunctionalInterface
+    private interface RecordSource {
+        void read(Consumer<TimesheetRecord> consumer) throws IOException;
     }
 
-    private String getCellValue(Cell cell) {
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue().toString();
-                } else {
-                    return String.valueOf(cell.getNumericCellValue());
-                }
-            default:
-                break;
+    void addToIndex(TimesheetIndex index, TimesheetRecord record) {
+        if (record.getEmployeeName() == null || (record.getDate() == null && !record.hasEpochDay())) {
+            return;
+        }
+        int epochDay = record.hasEpochDay() ? record.getEpochDay() : SourceDates.parseEpochDay(record.getDate());
+        index.recordDate(epochDay);
+        EmployeeTimesheet employee = index.employee(record.getEmployeeName());
+        String description = record.getDescription() == null ? "" : record.getDescription();
+        employee.addEntry(epochDay, description, hoursRounding.apply(HoursParser.parse(record.getTaskHours())));
+        if (record.getTotalHours() != null) {
+            employee.addDailyTotal(epochDay, hoursRounding.apply(HoursParser.parse(record.getTotalHours())));
         }
-        return "";
     }
 
 }
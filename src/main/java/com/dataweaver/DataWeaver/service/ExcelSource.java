@@ -0,0 +1,15 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A generated workbook that has not been written yet, either cached bytes or
+ * a read timesheet still to be rendered.
+ */
+@FunctionalInterface
+public interface ExcelSource {
+
+    void writeTo(OutputStream outputStream) throws IOException;
+
+}
@@ -0,0 +1,118 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.dataweaver.DataWeaver.model.EmployeeTimesheet;
+import com.dataweaver.DataWeaver.model.OutputFormat;
+import com.dataweaver.DataWeaver.service.PipelineMetrics.Stage;
+import com.dataweaver.DataWeaver.writer.DayRow;
+import com.dataweaver.DataWeaver.writer.EmployeeSheet;
+import com.dataweaver.DataWeaver.writer.EmployeeSheetBuilder;
+import com.dataweaver.DataWeaver.writer.HoursText;
+import com.dataweaver.DataWeaver.writer.MonthSkeleton;
+import com.dataweaver.DataWeaver.writer.SheetNames;
+import com.dataweaver.DataWeaver.writer.SheetPlan;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes the report as one JSON document through a streaming generator,
+ * one sheet at a time:
+ * <pre>
+ * {"from": "2025-01-01", "to": "2025-01-31",
+ *  "summary": {"employees": [{"name": ..., "hours": 160, "status": "Existing"}], "totalHours": ...},
+ *  "timesheets": [{"sheet": ..., "employee": ..., "from": ..., "to": ...,
+ *                  "days": [{"date": ..., "title": ..., "description": ..., "projectTime": 7.5, "type": "WORKDAY"}]}]}
+ * </pre>
+ * {@code projectTime} is null on days without entries.
+ */
+@Component
+public class JsonReportWriter implements ReportWriter {
+
+    private final EmployeeSheetBuilder employeeSheetBuilder;
+    private final ObjectMapper objectMapper;
+
+    public JsonReportWriter(EmployeeSheetBuilder employeeSheetBuilder, ObjectMapper objectMapper) {
+        this.employeeSheetBuilder = employeeSheetBuilder;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public OutputFormat getFormat() {
+        return OutputFormat.JSON;
+    }
+
+    @Override
+    public void write(Report report, OutputStream outputStream) throws IOException {
+        report.getTimer().switchTo(Stage.SUMMARY);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        generator.writeStartObject();
+        generator.writeStringField("from", LocalDate.ofEpochDay(report.getFirstDay()).toString());
+        generator.writeStringField("to", LocalDate.ofEpochDay(report.getLastDay()).toString());
+        generator.writeObjectFieldStart("summary");
+        generator.writeArrayFieldStart("employees");
+        for (EmployeeTimesheet employee: report.getIndex().getEmployees()) {
+            generator.writeStartObject();
+            generator.writeStringField("name", employee.getName());
+            generator.writeFieldName("hours");
+            generator.writeNumber(HoursText.format(report.summaryHours(employee)));
+            generator.writeStringField("status", "Existing");
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeNumberField("totalHours", report.summaryTotalHours());
+        generator.writeEndObject();
+
+        report.getTimer().switchTo(Stage.SHEETS);
+        SheetNames sheetNames = new SheetNames();
+        // reserved so sheet names match the workbook's
+        sheetNames.unique("Summary");
+        List<SheetPlan> plans = employeeSheetBuilder.plan(report.getIndex(), report.getFirstDay(),
+            report.getLastDay(), report.getOptions().getSheetLayout(), sheetNames);
+        generator.writeArrayFieldStart("timesheets");
+        int sheetsWritten = 0;
+        for (SheetPlan plan: plans) {
+            writeSheet(generator, employeeSheetBuilder.build(plan));
+            report.getProgressListener().onProgress(++sheetsWritten, plans.size());
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    private void writeSheet(JsonGenerator generator, EmployeeSheet employeeSheet) throws IOException {
+        MonthSkeleton skeleton = employeeSheet.getSkeleton();
+        List<DayRow> rows = employeeSheet.getRows();
+        generator.writeStartObject();
+        generator.writeStringField("sheet", employeeSheet.getSheetName());
+        generator.writeStringField("employee", employeeSheet.getEmployeeName());
+        generator.writeStringField("from", skeleton.isoDate(0));
+        generator.writeStringField("to", skeleton.isoDate(skeleton.length() - 1));
+        generator.writeArrayFieldStart("days");
+        for (int day = 0; day < rows.size(); day++) {
+            DayRow row = rows.get(day);
+            generator.writeStartObject();
+            generator.writeStringField("date", skeleton.isoDate(day));
+            generator.writeStringField("title", row.getTitle());
+            generator.writeStringField("description", row.getDescription());
+            generator.writeFieldName("projectTime");
+            if (row.hasProjectTime()) {
+                generator.writeNumber(HoursText.format(row.getProjectTime()));
+            } else {
+                generator.writeNull();
+            }
+            generator.writeStringField("type", row.getKind().name());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+}
@@ -0,0 +1,324 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.dataweaver.DataWeaver.model.EmployeeTimesheet;
+import com.dataweaver.DataWeaver.model.TimesheetIndex;
+
+/**
+ * One month of the {@link TimesheetStore}, kept in two files:
+ * <ul>
+ *   <li>{@code yyyy-MM.slots}, memory-mapped: a header, then one fixed-size
+ *   record per employee with a slot for each day of the month.</li>
+ *   <li>{@code yyyy-MM.strings}: the employee names and day descriptions
+ *   the slots refer to by offset, each distinct string stored once.</li>
+ * </ul>
+ * <pre>
+ * header:  int magic, int version, int month, int employees, long committed strings length, 8 bytes unused
+ * record:  long name ref, int days with entries, int days with a total,
+ *          31 x (double hours, double daily total, long description ref)
+ * string:  int length, UTF-8 bytes
+ * </pre>
+ * Changes are staged in memory, as copies of the records they touch, and
+ * only written to the mapped slots by {@link #commit()}, in an order that
+ * keeps the files consistent if the process dies at any point:
+ * <ol>
+ *   <li>the appended strings are forced to disk;</li>
+ *   <li>the header's strings length is raised to count them, and forced;</li>
+ *   <li>the staged records are written, and forced;</li>
+ *   <li>the header's employee count is raised to count new records, and forced.</li>
+ * </ol>
+ * So no slot on disk refers past the strings length in the header, and
+ * {@link #load} can drop strings past it. A segment that is closed or
+ * dropped without committing leaves its files as of the last commit. Not
+ * thread-safe; the store locks around it.
+ */
+class MonthSegment implements Closeable {
+
+    private static final int MAGIC = 0x44574d53;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int EMPLOYEES_OFFSET = 12;
+    private static final int STRINGS_LENGTH_OFFSET = 16;
+    private static final int DAY_SLOTS = 31;
+    private static final int DAY_BYTES = 24;
+    private static final int ENTRY_BITS_OFFSET = 8;
+    private static final int TOTAL_BITS_OFFSET = 12;
+    private static final int DAYS_OFFSET = 16;
+    private static final int RECORD_BYTES = DAYS_OFFSET + DAY_SLOTS * DAY_BYTES;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long NO_STRING = -1;
+
+    private final YearMonth month;
+    private final int firstDay;
+    private final int lastDay;
+    private final FileChannel slotsChannel;
+    private final FileChannel stringsChannel;
+    private final Map<String, Integer> recordsByName = new HashMap<>();
+    private final Map<String, Long> refsByString = new HashMap<>();
+    // where each stored string starts; a slot holding any other ref is treated as empty
+    private final Set<Long> stringStarts = new HashSet<>();
+    // records changed since the last commit, by record number, including new ones
+    private final Map<Integer, ByteBuffer> stagedRecords = new HashMap<>();
+    private MappedByteBuffer slots;
+    private MappedByteBuffer strings;
+    private int capacity;
+    private int employees;
+    // employees counting the records created since the last commit
+    private int stagedEmployees;
+    // strings up to committedLength are durable; appended ones are not until the next commit
+    private long committedLength;
+    private long appendedLength;
+
+    private MonthSegment(YearMonth month, Path slotsFile, Path stringsFile) throws IOException {
+        this.month = month;
+        this.firstDay = (int) month.atDay(1).toEpochDay();
+        this.lastDay = (int) month.atEndOfMonth().toEpochDay();
+        this.slotsChannel = FileChannel.open(slotsFile,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.stringsChannel = FileChannel.open(stringsFile,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Opens the month's files in {@code directory}, or returns null when
+     * the month has no files and {@code create} is false.
+     */
+    static MonthSegment open(Path directory, YearMonth month, boolean create) throws IOException {
+        Path slotsFile = directory.resolve(month + ".slots");
+        if (!create && !Files.exists(slotsFile)) {
+            return null;
+        }
+        MonthSegment segment = new MonthSegment(month, slotsFile, directory.resolve(month + ".strings"));
+        try {
+            segment.load();
+        } catch (IOException | RuntimeException e) {
+            segment.close();
+            throw e;
+        }
+        return segment;
+    }
+
+    static void delete(Path directory, YearMonth month) throws IOException {
+        Files.deleteIfExists(directory.resolve(month + ".slots"));
+        Files.deleteIfExists(directory.resolve(month + ".strings"));
+    }
+
+    private void load() throws IOException {
+        if (slotsChannel.size() == 0) {
+            capacity = INITIAL_CAPACITY;
+            slots = slotsChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * RECORD_BYTES);
+            slots.putInt(0, MAGIC);
+            slots.putInt(4, VERSION);
+            slots.putInt(8, monthKey());
+            writeHeader();
+            slots.force();
+        } else {
+            slots = slotsChannel.map(FileChannel.MapMode.READ_WRITE, 0, slotsChannel.size());
+            if (slots.getInt(0) != MAGIC || slots.getInt(4) != VERSION || slots.getInt(8) != monthKey()) {
+                throw new IOException("Store file for " + month + " is not a month segment of this version");
+            }
+            capacity = (slots.capacity() - HEADER_BYTES) / RECORD_BYTES;
+            employees = slots.getInt(EMPLOYEES_OFFSET);
+            committedLength = slots.getLong(STRINGS_LENGTH_OFFSET);
+        }
+        stagedEmployees = employees;
+
+        // anything past the committed length was appended by an ingestion that never committed,
+        // and commit() makes sure no slot on disk refers to it
+        stringsChannel.truncate(committedLength);
+        appendedLength = committedLength;
+        mapStrings();
+        for (long ref = 0; ref < committedLength; ) {
+            stringStarts.add(ref);
+            refsByString.put(string(ref), ref);
+            ref += Integer.BYTES + strings.getInt((int) ref);
+        }
+        for (int record = 0; record < employees; record++) {
+            recordsByName.put(string(slots.getLong(recordOffset(record))), record);
+        }
+    }
+
+    boolean contains(int epochDay) {
+        return epochDay >= firstDay && epochDay <= lastDay;
+    }
+
+    /**
+     * Replaces the stored state of one employee's day with theirs in
+     * {@code employee}: their entries and total for the day, or nothing.
+     */
+    void replaceDay(EmployeeTimesheet employee, int epochDay) throws IOException {
+        ByteBuffer record = stagedRecord(record(employee.getName()));
+        int dayIndex = epochDay - firstDay;
+        int bit = 1 << dayIndex;
+        boolean hasEntries = employee.hasEntries(epochDay);
+        boolean hasTotal = employee.hasDailyTotal(epochDay);
+        long descriptionRef = hasEntries ? intern(employee.getDescription(epochDay)) : NO_STRING;
+
+        int entryBits = record.getInt(ENTRY_BITS_OFFSET);
+        int totalBits = record.getInt(TOTAL_BITS_OFFSET);
+        record.putInt(ENTRY_BITS_OFFSET, hasEntries ? entryBits | bit : entryBits & ~bit);
+        record.putInt(TOTAL_BITS_OFFSET, hasTotal ? totalBits | bit : totalBits & ~bit);
+        int dayOffset = DAYS_OFFSET + dayIndex * DAY_BYTES;
+        record.putDouble(dayOffset, hasEntries ? employee.getHours(epochDay) : 0.0);
+        record.putDouble(dayOffset + 8, hasTotal ? employee.getDailyTotal(epochDay) : 0.0);
+        record.putLong(dayOffset + 16, descriptionRef);
+    }
+
+    /**
+     * Makes the changes since the last commit durable, in the order given
+     * in the class comment.
+     */
+    void commit() throws IOException {
+        if (stagedRecords.isEmpty() && appendedLength == committedLength) {
+            return;
+        }
+        stringsChannel.force(false);
+        committedLength = appendedLength;
+        mapStrings();
+        slots.putLong(STRINGS_LENGTH_OFFSET, committedLength);
+        slots.force();
+
+        if (stagedEmployees > capacity) {
+            while (stagedEmployees > capacity) {
+                capacity *= 2;
+            }
+            // mapping past the end of the file extends it
+            slots = slotsChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * RECORD_BYTES);
+        }
+        for (Map.Entry<Integer, ByteBuffer> staged: stagedRecords.entrySet()) {
+            slots.put(recordOffset(staged.getKey()), staged.getValue().array());
+        }
+        slots.force();
+        stagedRecords.clear();
+
+        if (stagedEmployees != employees) {
+            employees = stagedEmployees;
+            slots.putInt(EMPLOYEES_OFFSET, employees);
+            slots.force();
+        }
+    }
+
+    /** Adds the month's entries between two epoch days, inclusive, to {@code index}. */
+    void readInto(TimesheetIndex index, int from, int to) {
+        int first = Math.max(from, firstDay);
+        int last = Math.min(to, lastDay);
+        for (int record = 0; record < employees; record++) {
+            int recordOffset = recordOffset(record);
+            int entryBits = slots.getInt(recordOffset + ENTRY_BITS_OFFSET);
+            int totalBits = slots.getInt(recordOffset + TOTAL_BITS_OFFSET);
+            EmployeeTimesheet employee = null;
+            for (int epochDay = first; epochDay <= last; epochDay++) {
+                int dayIndex = epochDay - firstDay;
+                int bit = 1 << dayIndex;
+                if (((entryBits | totalBits) & bit) == 0) {
+                    continue;
+                }
+                if (employee == null) {
+                    employee = index.employee(string(slots.getLong(recordOffset)));
+                }
+                index.recordDate(epochDay);
+                int dayOffset = recordOffset + DAYS_OFFSET + dayIndex * DAY_BYTES;
+                if ((entryBits & bit) != 0) {
+                    employee.addEntry(epochDay, string(slots.getLong(dayOffset + 16)), slots.getDouble(dayOffset));
+                }
+                if ((totalBits & bit) != 0) {
+                    employee.addDailyTotal(epochDay, slots.getDouble(dayOffset + 8));
+                }
+            }
+        }
+    }
+
+    private int record(String name) throws IOException {
+        Integer record = recordsByName.get(name);
+        if (record != null) {
+            return record;
+        }
+        ByteBuffer staged = ByteBuffer.allocate(RECORD_BYTES);
+        staged.putLong(0, intern(name));
+        stagedRecords.put(stagedEmployees, staged);
+        recordsByName.put(name, stagedEmployees);
+        return stagedEmployees++;
+    }
+
+    /** The staged copy of a record, made from the slots on its first change since the last commit. */
+    private ByteBuffer stagedRecord(int record) {
+        return stagedRecords.computeIfAbsent(record, committed -> {
+            byte[] copy = new byte[RECORD_BYTES];
+            slots.get(recordOffset(committed), copy);
+            return ByteBuffer.wrap(copy);
+        });
+    }
+
+    private long intern(String value) throws IOException {
+        Long ref = refsByString.get(value);
+        if (ref != null) {
+            return ref;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (appendedLength + Integer.BYTES + bytes.length > Integer.MAX_VALUE) {
+            throw new IOException("Store strings for " + month + " are over 2GB");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + bytes.length).putInt(bytes.length).put(bytes).flip();
+        long position = appendedLength;
+        while (buffer.hasRemaining()) {
+            position += stringsChannel.write(buffer, position);
+        }
+        long newRef = appendedLength;
+        refsByString.put(value, newRef);
+        stringStarts.add(newRef);
+        appendedLength = position;
+        return newRef;
+    }
+
+    private String string(long ref) {
+        // only slots written before commit() kept refs in step with the strings could hold any other ref
+        if (ref == NO_STRING || ref >= committedLength || !stringStarts.contains(ref)) {
+            return "";
+        }
+        int length = strings.getInt((int) ref);
+        byte[] bytes = new byte[length];
+        strings.get((int) ref + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void mapStrings() throws IOException {
+        strings = stringsChannel.map(FileChannel.MapMode.READ_ONLY, 0, committedLength);
+    }
+
+    private void writeHeader() {
+        slots.putInt(EMPLOYEES_OFFSET, employees);
+        slots.putLong(STRINGS_LENGTH_OFFSET, committedLength);
+    }
+
+    private int monthKey() {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    private static int recordOffset(int record) {
+        return HEADER_BYTES + record * RECORD_BYTES;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            slotsChannel.close();
+        } finally {
+            stringsChannel.close();
+        }
+    }
+
+}
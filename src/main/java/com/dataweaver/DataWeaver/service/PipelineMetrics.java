@@ -0,0 +1,152 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+import com.dataweaver.DataWeaver.model.OutputFormat;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters for the generate-excel pipeline: a timer per stage, sizes of what
+ * went in and came out, and the number of generation requests in flight.
+ * Timers and summaries are tagged with the outcome of the read or write
+ * they belong to, so failed runs don't skew the figures for good ones.
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+
+    public enum Stage {
+        /** Waiting for a {@link ProcessingLimiter} permit before reading or rendering. */
+        WAIT,
+        /** POI reading the upload, excluding {@link #GROUP}. */
+        PARSE,
+        /** Date parsing and grouping of rows by employee and day. */
+        GROUP,
+        /** Summary sheet, including its column sizing. */
+        SUMMARY,
+        /** Building and writing the employee sheets, excluding {@link #SIZING}. */
+        SHEETS,
+        /** Column sizing of the employee sheets. */
+        SIZING,
+        /** Writing the finished workbook to the response, file or cache. Formats written in one pass have none. */
+        SERIALIZE
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public PipelineMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("dataweaver.requests.in.flight", inFlight, AtomicInteger::get)
+            .description("Generate-excel requests being read or written")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Counts a request as in flight until the returned handle is closed.
+     * Closing more than once is harmless.
+     */
+    public InFlightRequest enterRequest() {
+        inFlight.incrementAndGet();
+        return new InFlightRequest();
+    }
+
+    public StageTimer startTimer(Stage stage) {
+        return new StageTimer(stage);
+    }
+
+    public void recordInput(String outcome, int rows, int employees) {
+        summary("dataweaver.input.rows", "Data rows read from each upload", outcome).record(rows);
+        summary("dataweaver.input.employees", "Employees in each upload", outcome).record(employees);
+    }
+
+    public void recordOutput(String outcome, OutputFormat format, long bytes) {
+        DistributionSummary.builder("dataweaver.output.bytes")
+            .description("Size of each generated output")
+            .baseUnit("bytes")
+            .tag("outcome", outcome)
+            .tag("format", format.name().toLowerCase(Locale.ROOT))
+            .register(meterRegistry)
+            .record(bytes);
+    }
+
+    public void recordStyles(String outcome, int styles) {
+        summary("dataweaver.workbook.styles", "Distinct cell styles in each generated workbook", outcome)
+            .record(styles);
+    }
+
+    // counts have no base unit; Prometheus would otherwise repeat it, as in dataweaver_input_rows_rows
+    private DistributionSummary summary(String name, String description, String outcome) {
+        return DistributionSummary.builder(name)
+            .description(description)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    public class InFlightRequest implements AutoCloseable {
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+
+    }
+
+    /**
+     * Splits the elapsed time of one read or write between stages. Time is
+     * accumulated locally as the run moves between stages and only recorded
+     * on {@link #stop}, so switching stages per row stays cheap.
+     */
+    public class StageTimer {
+
+        private final long[] elapsed = new long[Stage.values().length];
+        private final boolean[] entered = new boolean[Stage.values().length];
+        private Stage current;
+        private long startedAt;
+
+        private StageTimer(Stage stage) {
+            current = stage;
+            entered[stage.ordinal()] = true;
+            startedAt = System.nanoTime();
+        }
+
+        public void switchTo(Stage stage) {
+            long now = System.nanoTime();
+            elapsed[current.ordinal()] += now - startedAt;
+            entered[stage.ordinal()] = true;
+            current = stage;
+            startedAt = now;
+        }
+
+        public void stop(String outcome) {
+            elapsed[current.ordinal()] += System.nanoTime() - startedAt;
+            for (Stage stage: Stage.values()) {
+                if (entered[stage.ordinal()]) {
+                    Timer.builder("dataweaver.pipeline.stage")
+                        .description("Time spent in each stage of generate-excel")
+                        .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(elapsed[stage.ordinal()], TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+
+    }
+
+}
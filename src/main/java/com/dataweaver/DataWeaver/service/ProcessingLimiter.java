@@ -0,0 +1,64 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.stereotype.Component;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounds how many uploads are being parsed or built into sheets at once,
+ * across requests, jobs and batches, at
+ * {@code data-weaver.processing.max-concurrent-workbooks}. Both stages are
+ * CPU-bound POI work; on virtual threads nothing else caps how many run
+ * together, and running more of them than there are cores only makes
+ * every one slower. Callers over the limit wait their turn.
+ */
+@Component
+public class ProcessingLimiter {
+
+    private final Semaphore permits;
+
+    public ProcessingLimiter(DataWeaverProperties properties, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(properties.getProcessing().getMaxConcurrentWorkbooks(), true);
+        Gauge.builder("dataweaver.processing.waiting", permits, Semaphore::getQueueLength)
+            .description("Uploads waiting for a permit to be parsed or built into sheets")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Blocks until a permit is free. Closing the returned permit more than
+     * once is harmless.
+     */
+    public Permit acquire() throws IOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to process upload", e);
+        }
+        return new Permit();
+    }
+
+    public class Permit implements AutoCloseable {
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.dataweaver.DataWeaver.service;
+
+/**
+ * Notified as employee sheets are written into the output workbook.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    ProgressListener NONE = (sheetsWritten, totalSheets) -> { };
+
+    void onProgress(int sheetsWritten, int totalSheets);
+
+}
@@ -0,0 +1,43 @@
+package com.dataweaver.DataWeaver.service;
+
+import com.dataweaver.DataWeaver.dto.GenerationOptions;
+import com.dataweaver.DataWeaver.model.EmployeeTimesheet;
+import com.dataweaver.DataWeaver.model.TimesheetIndex;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Everything a {@link ReportWriter} needs to write one output: the read
+ * timesheet, the resolved options, the epoch days reported on, and where to
+ * report timing and progress.
+ */
+@Getter
+@AllArgsConstructor
+public class Report {
+
+    private final TimesheetIndex index;
+    private final GenerationOptions options;
+    private final int firstDay;
+    private final int lastDay;
+    private final PipelineMetrics.StageTimer timer;
+    private final ProgressListener progressListener;
+
+    /** Summary hours of one employee: their daily totals within the range. */
+    public double summaryHours(EmployeeTimesheet employee) {
+        return employee.getTotalHours(firstDay, lastDay);
+    }
+
+    /**
+     * The summary's grand total. Fractions are dropped after each employee
+     * is added, as the summary sheet has always totalled them.
+     */
+    public int summaryTotalHours() {
+        int totalHours = 0;
+        for (EmployeeTimesheet employee: index.getEmployees()) {
+            totalHours += summaryHours(employee);
+        }
+        return totalHours;
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.dataweaver.DataWeaver.model.OutputFormat;
+
+/**
+ * Writes a {@link Report} in one {@link OutputFormat}. Writers are picked up
+ * as beans by {@link DataWeaverService}, one per format.
+ */
+public interface ReportWriter {
+
+    OutputFormat getFormat();
+
+    /**
+     * Writes the summary and every employee sheet to {@code outputStream}
+     * without closing it. The report's timer is in
+     * {@link PipelineMetrics.Stage#WAIT} when this is called; writers switch
+     * it to the stages they go through, and report progress per sheet.
+     */
+    void write(Report report, OutputStream outputStream) throws IOException;
+
+}
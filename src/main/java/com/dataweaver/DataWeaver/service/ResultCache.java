@@ -0,0 +1,569 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.model.OutputFormat;
+import com.dataweaver.DataWeaver.model.UploadFormat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keeps generated workbooks keyed by a SHA-256 of the uploaded bytes and the
+ * processing options, so re-uploading the same export skips generation.
+ * Small results stay in heap; results above
+ * {@code data-weaver.cache.heap-entry-max-size} go to the disk tier when it
+ * is enabled. Both tiers evict least recently used entries past their size
+ * budget and drop entries older than {@code data-weaver.cache.ttl}.
+ * <p>
+ * Each disk entry has a file of its own, and a file dropped from the cache
+ * is only deleted once the last reader of it is done.
+ */
+@Component
+public class ResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultCache.class);
+
+    private final DataWeaverProperties.Cache cacheProperties;
+    private final Tier heapTier;
+    private final Tier diskTier;
+    private final Counter hits;
+    private final Counter misses;
+
+    public ResultCache(DataWeaverProperties properties, MeterRegistry meterRegistry) throws IOException {
+        this.cacheProperties = properties.getCache();
+        this.heapTier = new Tier("heap", cacheProperties.getHeapMaxSize().toBytes(), meterRegistry);
+        this.diskTier = new Tier("disk", cacheProperties.getDiskMaxSize().toBytes(), meterRegistry);
+        this.hits = Counter.builder("dataweaver.cache.requests").tag("result", "hit")
+            .description("Result cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("dataweaver.cache.requests").tag("result", "miss")
+            .description("Result cache lookups").register(meterRegistry);
+
+        if (cacheProperties.isDiskEnabled()) {
+            // Entries are not indexed across restarts, so anything left over is unreachable
+            Path directory = cacheProperties.getDiskDirectory();
+            if (Files.isDirectory(directory)) {
+                try (var files = Files.list(directory)) {
+                    for (Path file: (Iterable<Path>) files::iterator) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+            Files.createDirectories(directory);
+        }
+    }
+
+    /**
+     * Returns the cache key for an upload, or {@code null} when caching is
+     * disabled. The key covers the upload's bytes and detected format, as
+     * the same bytes read as CSV or TSV give different results, and the
+     * options, output format included.
+     */
+    public String keyFor(MultipartFile file, String optionsKey) throws IOException {
+        if (!cacheProperties.isEnabled()) {
+            return null;
+        }
+        MessageDigest digest = sha256();
+        try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        UploadFormat uploadFormat = UploadFormat.detect(file.getOriginalFilename(), file.getContentType());
+        digest.update(("upload=" + uploadFormat + "&" + optionsKey).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * The cached result for {@code key}. It stays readable until closed,
+     * even if it is evicted meanwhile, so callers must close it once done.
+     */
+    public Optional<CachedResult> get(String key) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        CachedResult result = heapTier.get(key);
+        if (result == null) {
+            result = diskTier.get(key);
+        }
+        if (result == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(result);
+    }
+
+    /**
+     * Caches {@code content} if it fits a tier. Failing to write the disk
+     * copy only loses the entry; the result itself is still good.
+     */
+    public void put(String key, OutputFormat format, byte[] content) {
+        if (key == null) {
+            return;
+        }
+        if (content.length <= heapEntryMaxBytes()) {
+            heapTier.put(key, new HeapResult(content, expiry()));
+        } else if (cacheProperties.isDiskEnabled()) {
+            Path file = null;
+            try {
+                file = Files.createTempFile(cacheProperties.getDiskDirectory(), "result-", ".part");
+                Files.write(file, content);
+                putFile(key, format, file);
+            } catch (IOException e) {
+                log.warn("Could not cache result on disk: {}", e.getMessage());
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code writer} against {@code outputStream} while keeping a copy
+     * of everything written, and caches the copy if the writer succeeds.
+     * Without the disk tier the copy is kept in heap only until it outgrows
+     * a heap entry. With it, the copy goes to a file, and a copy that cannot
+     * be written is dropped without failing the writer.
+     */
+    public void writeThrough(String key, OutputFormat format, OutputStream outputStream, ExcelSource writer)
+            throws IOException {
+        if (key == null) {
+            writer.writeTo(outputStream);
+            return;
+        }
+        if (!cacheProperties.isDiskEnabled()) {
+            HeapCopy copy = new HeapCopy(heapEntryMaxBytes());
+            writer.writeTo(new TeeOutputStream(outputStream, copy));
+            if (!copy.isOverflowed()) {
+                heapTier.put(key, new HeapResult(copy.toByteArray(), expiry()));
+            }
+            return;
+        }
+
+        FileCopy copy = FileCopy.open(cacheProperties.getDiskDirectory());
+        if (copy == null) {
+            writer.writeTo(outputStream);
+            return;
+        }
+        try {
+            writer.writeTo(new TeeOutputStream(outputStream, copy));
+            if (copy.finish()) {
+                putCopy(key, format, copy);
+            }
+        } finally {
+            copy.finish();
+            deleteQuietly(copy.file);
+        }
+    }
+
+    private void putCopy(String key, OutputFormat format, FileCopy copy) {
+        try {
+            if (copy.size() <= heapEntryMaxBytes()) {
+                heapTier.put(key, new HeapResult(Files.readAllBytes(copy.file), expiry()));
+            } else {
+                putFile(key, format, copy.file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not cache result on disk: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Moves {@code file} to a name of its own, the temp name with the output
+     * format's extension, so replacing an entry never touches the file of
+     * the entry it replaces.
+     */
+    private void putFile(String key, OutputFormat format, Path file) throws IOException {
+        String name = file.getFileName().toString();
+        String stem = name.endsWith(".part") ? name.substring(0, name.length() - ".part".length()) : name;
+        Path target = cacheProperties.getDiskDirectory().resolve(stem + format.getExtension());
+        Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+        diskTier.put(key, new DiskResult(target, Files.size(target), expiry()));
+    }
+
+    private long heapEntryMaxBytes() {
+        return cacheProperties.getHeapEntryMaxSize().toBytes();
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    private Instant expiry() {
+        return Instant.now().plus(cacheProperties.getTtl());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public interface CachedResult extends AutoCloseable {
+
+        void writeTo(OutputStream outputStream) throws IOException;
+
+        byte[] toBytes() throws IOException;
+
+        long size();
+
+        Instant expiresAt();
+
+        /** Takes a reader's hold on the result; false once it is gone. */
+        default boolean retain() {
+            return true;
+        }
+
+        /** Gives back the hold taken by {@link ResultCache#get}. */
+        @Override
+        default void close() {
+        }
+
+        /** Called once when the cache drops the result. */
+        default void discard() {
+        }
+    }
+
+    private static class HeapResult implements CachedResult {
+
+        private final byte[] content;
+        private final Instant expiresAt;
+
+        HeapResult(byte[] content, Instant expiresAt) {
+            this.content = content;
+            this.expiresAt = expiresAt;
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            outputStream.write(content);
+        }
+
+        @Override
+        public byte[] toBytes() {
+            return content;
+        }
+
+        @Override
+        public long size() {
+            return content.length;
+        }
+
+        @Override
+        public Instant expiresAt() {
+            return expiresAt;
+        }
+    }
+
+    /**
+     * Counts the cache's own hold on the file plus one per reader; the file
+     * is deleted when the count drops to zero.
+     */
+    private static class DiskResult implements CachedResult {
+
+        private final Path file;
+        private final long size;
+        private final Instant expiresAt;
+        private final AtomicInteger holds = new AtomicInteger(1);
+
+        DiskResult(Path file, long size, Instant expiresAt) {
+            this.file = file;
+            this.size = size;
+            this.expiresAt = expiresAt;
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            Files.copy(file, outputStream);
+        }
+
+        @Override
+        public byte[] toBytes() throws IOException {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) size);
+            writeTo(outputStream);
+            return outputStream.toByteArray();
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public Instant expiresAt() {
+            return expiresAt;
+        }
+
+        @Override
+        public boolean retain() {
+            for (int current = holds.get(); current > 0; current = holds.get()) {
+                if (holds.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+
+        @Override
+        public void discard() {
+            release();
+        }
+
+        private void release() {
+            if (holds.decrementAndGet() == 0) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Could not delete cached result {}: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * One size-bounded LRU tier. Lookups and inserts are serialized; both
+     * are cheap compared with generating a workbook.
+     */
+    private static class Tier {
+
+        private final long maxBytes;
+        private final Map<String, CachedResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final Counter evictions;
+        private long currentBytes;
+
+        Tier(String name, long maxBytes, MeterRegistry meterRegistry) {
+            this.maxBytes = maxBytes;
+            this.evictions = Counter.builder("dataweaver.cache.evictions").tag("tier", name)
+                .description("Results removed from the cache because of size or age").register(meterRegistry);
+            Gauge.builder("dataweaver.cache.size", this, Tier::currentBytes).tag("tier", name)
+                .baseUnit("bytes").description("Bytes held by the result cache").register(meterRegistry);
+        }
+
+        synchronized CachedResult get(String key) {
+            CachedResult result = entries.get(key);
+            if (result != null && result.expiresAt().isBefore(Instant.now())) {
+                remove(key);
+                return null;
+            }
+            return result != null && result.retain() ? result : null;
+        }
+
+        synchronized void put(String key, CachedResult result) {
+            if (result.size() > maxBytes) {
+                result.discard();
+                return;
+            }
+            CachedResult previous = entries.put(key, result);
+            if (previous != null) {
+                currentBytes -= previous.size();
+                if (previous != result) {
+                    previous.discard();
+                }
+            }
+            currentBytes += result.size();
+            evict();
+        }
+
+        private void evict() {
+            Instant now = Instant.now();
+            Iterator<Map.Entry<String, CachedResult>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                CachedResult result = iterator.next().getValue();
+                if (currentBytes <= maxBytes && !result.expiresAt().isBefore(now)) {
+                    break;
+                }
+                iterator.remove();
+                currentBytes -= result.size();
+                result.discard();
+                evictions.increment();
+            }
+        }
+
+        private void remove(String key) {
+            CachedResult result = entries.remove(key);
+            currentBytes -= result.size();
+            result.discard();
+            evictions.increment();
+        }
+
+        private synchronized double currentBytes() {
+            return currentBytes;
+        }
+    }
+
+    private static class TeeOutputStream extends OutputStream {
+
+        private final OutputStream first;
+        private final OutputStream second;
+
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+    }
+
+    /** Keeps what is written until it passes {@code maxBytes}, then drops it and ignores the rest. */
+    private static class HeapCopy extends ByteArrayOutputStream {
+
+        private final long maxBytes;
+        private boolean overflowed;
+
+        HeapCopy(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            if (fits(1)) {
+                super.write(b);
+            }
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            if (fits(len)) {
+                super.write(b, off, len);
+            }
+        }
+
+        private boolean fits(int len) {
+            if (!overflowed && count + (long) len > maxBytes) {
+                overflowed = true;
+                buf = new byte[0];
+                count = 0;
+            }
+            return !overflowed;
+        }
+
+        boolean isOverflowed() {
+            return overflowed;
+        }
+    }
+
+    /**
+     * A copy on disk that never fails its writer: once a write to the file
+     * fails, the copy is abandoned and the rest of the output is ignored.
+     */
+    private static class FileCopy extends OutputStream {
+
+        private final Path file;
+        private final OutputStream fileStream;
+        private boolean failed;
+        private boolean finished;
+        private long size;
+
+        private FileCopy(Path file, OutputStream fileStream) {
+            this.file = file;
+            this.fileStream = fileStream;
+        }
+
+        /** A copy in {@code directory}, or {@code null} if no file can be created there. */
+        static FileCopy open(Path directory) {
+            Path file = null;
+            try {
+                file = Files.createTempFile(directory, "result-", ".part");
+                return new FileCopy(file, Files.newOutputStream(file));
+            } catch (IOException e) {
+                log.warn("Could not cache result on disk: {}", e.getMessage());
+                deleteQuietly(file);
+                return null;
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (failed) {
+                return;
+            }
+            try {
+                fileStream.write(b, off, len);
+                size += len;
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        /** Closes the file; true if it holds the complete output. */
+        boolean finish() {
+            if (!finished) {
+                finished = true;
+                try {
+                    fileStream.close();
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+            return !failed;
+        }
+
+        long size() {
+            return size;
+        }
+
+        private void fail(IOException e) {
+            if (!failed) {
+                failed = true;
+                log.warn("Could not cache result on disk: {}", e.getMessage());
+            }
+        }
+    }
+
+}
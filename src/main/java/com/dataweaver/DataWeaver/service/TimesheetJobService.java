@@ -0,0 +1,152 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.dto.GenerationOptions;
+import com.dataweaver.DataWeaver.exception.RequestRejectedException;
+import com.dataweaver.DataWeaver.model.JobState;
+import com.dataweaver.DataWeaver.model.TimesheetJob;
+import com.dataweaver.DataWeaver.model.TimesheetIndex;
+import com.dataweaver.DataWeaver.model.UploadFormat;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs generate-excel in the background for uploads too large to process
+ * within one HTTP request. Uploads and results are spooled to
+ * {@code data-weaver.jobs.spool-directory}; finished jobs are forgotten and
+ * their files deleted once {@code data-weaver.jobs.result-ttl} has passed.
+ */
+@Service
+public class TimesheetJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(TimesheetJobService.class);
+
+    private final DataWeaverService dataWeaverService;
+    private final DataWeaverProperties.Jobs jobProperties;
+    private final ThreadPoolExecutor jobPool;
+    private final Map<String, TimesheetJob> jobs = new ConcurrentHashMap<>();
+
+    public TimesheetJobService(DataWeaverService dataWeaverService, DataWeaverProperties properties,
+            WorkerThreads workerThreads) throws IOException {
+        this.dataWeaverService = dataWeaverService;
+        this.jobProperties = properties.getJobs();
+        this.jobPool = new ThreadPoolExecutor(jobProperties.getWorkers(), jobProperties.getWorkers(),
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(jobProperties.getQueueCapacity()),
+            workerThreads.factory("timesheet-job-"), new ThreadPoolExecutor.AbortPolicy());
+        Files.createDirectories(jobProperties.getSpoolDirectory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobPool.shutdownNow();
+    }
+
+    /**
+     * Moves the upload to the spool directory and queues it. Rejects with
+     * 429 when every worker is busy and the queue is full.
+     */
+    public TimesheetJob submit(MultipartFile file, GenerationOptions options) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path spoolDirectory = jobProperties.getSpoolDirectory();
+        UploadFormat format = UploadFormat.detect(file.getOriginalFilename(), file.getContentType());
+        GenerationOptions resolvedOptions = dataWeaverService.resolveOptions(options);
+        TimesheetJob job = new TimesheetJob(id, resolvedOptions, format, spoolDirectory.resolve(id + ".upload"),
+            spoolDirectory.resolve(id + resolvedOptions.getFormat().getExtension()));
+
+        // moves the container's temp file into the spool directory where it can, rather than copying it
+        file.transferTo(job.getUploadFile().toFile());
+
+        jobs.put(id, job);
+        try {
+            jobPool.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            Files.deleteIfExists(job.getUploadFile());
+            throw new RequestRejectedException(HttpStatus.TOO_MANY_REQUESTS,
+                "Job queue is full, retry later");
+        }
+        return job;
+    }
+
+    public TimesheetJob getJob(String id) {
+        TimesheetJob job = jobs.get(id);
+        if (job == null) {
+            throw new RequestRejectedException(HttpStatus.NOT_FOUND, "No job with id " + id);
+        }
+        return job;
+    }
+
+    /**
+     * Returns the result file of a completed job.
+     */
+    public Path getResult(String id) {
+        TimesheetJob job = getJob(id);
+        if (job.getState() == JobState.FAILED) {
+            throw new RequestRejectedException(HttpStatus.CONFLICT, "Job " + id + " failed: " + job.getError());
+        }
+        if (job.getState() != JobState.COMPLETED) {
+            throw new RequestRejectedException(HttpStatus.CONFLICT, "Job " + id + " is " + job.getState());
+        }
+        return job.getResultFile();
+    }
+
+    @Scheduled(fixedDelayString = "${data-weaver.jobs.cleanup-interval:PT5M}")
+    public void removeExpiredJobs() {
+        Instant expiry = Instant.now().minus(jobProperties.getResultTtl());
+        for (TimesheetJob job: jobs.values()) {
+            if (job.isFinished() && job.getFinishedAt().isBefore(expiry)) {
+                jobs.remove(job.getId());
+                deleteQuietly(job.getResultFile());
+            }
+        }
+    }
+
+    private void run(TimesheetJob job) {
+        job.markRunning();
+        Path partialResult = job.getResultFile().resolveSibling(job.getId() + ".part");
+        try {
+            TimesheetIndex index = dataWeaverService.readTimesheet(job.getUploadFile(), job.getFormat());
+            try (OutputStream outputStream = Files.newOutputStream(partialResult)) {
+                dataWeaverService.writeReport(index, job.getOptions(), outputStream, job::updateProgress);
+            }
+            Files.move(partialResult, job.getResultFile(), StandardCopyOption.REPLACE_EXISTING);
+            job.markCompleted();
+        } catch (Exception e) {
+            log.warn("Job {} failed: {}", job.getId(), e.getMessage());
+            deleteQuietly(partialResult);
+            job.markFailed(e.getMessage());
+        } finally {
+            deleteQuietly(job.getUploadFile());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.dto.GenerationOptions;
+import com.dataweaver.DataWeaver.dto.StoreIngestResponse;
+import com.dataweaver.DataWeaver.exception.RequestRejectedException;
+import com.dataweaver.DataWeaver.model.EmployeeTimesheet;
+import com.dataweaver.DataWeaver.model.TimesheetIndex;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Aggregated timesheets kept on disk between uploads, one
+ * {@link MonthSegment} per month, so daily or weekly exports can be merged
+ * as they arrive and the month's output produced without re-reading them.
+ * <p>
+ * An upload replaces every employee day it has entries for, as grouped by
+ * {@link DataWeaverService} for any upload; days it has no entries for are
+ * kept. Ingesting the same export twice therefore leaves the store as it
+ * was after the first time.
+ */
+@Component
+public class TimesheetStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TimesheetStore.class);
+
+    private final Path directory;
+    private final DataWeaverService dataWeaverService;
+    // ingestion takes the write lock, reads the read lock; segments are opened under either
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<YearMonth, MonthSegment> segments = new HashMap<>();
+
+    public TimesheetStore(DataWeaverProperties properties, DataWeaverService dataWeaverService) {
+        this.directory = properties.getStore().getDirectory();
+        this.dataWeaverService = dataWeaverService;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (segments) {
+            for (MonthSegment segment: segments.values()) {
+                closeQuietly(segment);
+            }
+            segments.clear();
+        }
+    }
+
+    public StoreIngestResponse ingest(MultipartFile file) throws IOException {
+        TimesheetIndex delta;
+        try (AdmittedTimesheet admitted = dataWeaverService.readAdmitted(file)) {
+            delta = admitted.getIndex();
+        }
+        return ingest(delta);
+    }
+
+    /**
+     * Merges a grouped upload into the store. Each month it touches is
+     * committed once all of the upload has been written.
+     */
+    public StoreIngestResponse ingest(TimesheetIndex delta) throws IOException {
+        TreeSet<YearMonth> touched = new TreeSet<>();
+        int days = 0;
+        lock.writeLock().lock();
+        try {
+            Files.createDirectories(directory);
+            for (EmployeeTimesheet employee: delta.getEmployees()) {
+                MonthSegment segment = null;
+                for (int epochDay = delta.getFirstDay(); epochDay <= delta.getLastDay(); epochDay++) {
+                    if (!employee.hasEntries(epochDay) && !employee.hasDailyTotal(epochDay)) {
+                        continue;
+                    }
+                    if (segment == null || !segment.contains(epochDay)) {
+                        YearMonth month = YearMonth.from(LocalDate.ofEpochDay(epochDay));
+                        segment = segment(month, true);
+                        touched.add(month);
+                    }
+                    segment.replaceDay(employee, epochDay);
+                    days++;
+                }
+            }
+            for (YearMonth month: touched) {
+                segment(month, false).commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            // changes are only staged in memory until a segment commits, and strings appended
+            // past its committed length are truncated when it is reopened, so reopening the
+            // months from disk drops whatever of this upload they had not committed
+            for (YearMonth month: touched) {
+                evict(month);
+            }
+            throw e;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<String> months = new ArrayList<>();
+        for (YearMonth month: touched) {
+            months.add(month.toString());
+        }
+        return new StoreIngestResponse(months, delta.getEmployees().size(), days);
+    }
+
+    /**
+     * Reads the stored entries for a report: for {@code month}, or for the
+     * {@code from}/{@code to} range of the options, which narrows or widens
+     * the month when both are given. The range is set on the returned
+     * options so the report covers it whatever days have entries.
+     */
+    public TimesheetIndex read(YearMonth month, GenerationOptions options) throws IOException {
+        LocalDate from = options.getFrom() != null ? options.getFrom() : month == null ? null : month.atDay(1);
+        LocalDate to = options.getTo() != null ? options.getTo() : month == null ? null : month.atEndOfMonth();
+        if (from == null || to == null) {
+            throw new RequestRejectedException(HttpStatus.BAD_REQUEST, "Give a 'month', or both 'from' and 'to'");
+        }
+        if (from.isAfter(to)) {
+            throw new RequestRejectedException(HttpStatus.BAD_REQUEST, "'from' must not be after 'to'");
+        }
+        options.setFrom(from);
+        options.setTo(to);
+
+        TimesheetIndex index = new TimesheetIndex();
+        lock.readLock().lock();
+        try {
+            for (YearMonth current = YearMonth.from(from); !current.isAfter(YearMonth.from(to)); current = current.plusMonths(1)) {
+                MonthSegment segment = segment(current, false);
+                if (segment != null) {
+                    segment.readInto(index, (int) from.toEpochDay(), (int) to.toEpochDay());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (index.isEmpty()) {
+            throw new RequestRejectedException(HttpStatus.NOT_FOUND, "No stored entries between " + from + " and " + to);
+        }
+        return index;
+    }
+
+    /** Removes a month from the store; returns false if it had nothing stored. */
+    public boolean deleteMonth(YearMonth month) throws IOException {
+        lock.writeLock().lock();
+        try {
+            evict(month);
+            boolean stored = Files.exists(directory.resolve(month + ".slots"));
+            MonthSegment.delete(directory, month);
+            return stored;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private MonthSegment segment(YearMonth month, boolean create) throws IOException {
+        synchronized (segments) {
+            MonthSegment segment = segments.get(month);
+            if (segment == null) {
+                segment = MonthSegment.open(directory, month, create);
+                if (segment != null) {
+                    segments.put(month, segment);
+                }
+            }
+            return segment;
+        }
+    }
+
+    private void evict(YearMonth month) {
+        synchronized (segments) {
+            MonthSegment segment = segments.remove(month);
+            if (segment != null) {
+                closeQuietly(segment);
+            }
+        }
+    }
+
+    private void closeQuietly(MonthSegment segment) {
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Could not close store segment: {}", e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.exception.RequestRejectedException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caps the upload bytes being read and rendered across all generate-excel
+ * requests at {@code data-weaver.uploads.max-concurrent-size}. A request is
+ * turned away up front rather than queued, so a burst of large uploads
+ * cannot pile up in the heap.
+ */
+@Component
+public class UploadBudget {
+
+    private final DataSize maxConcurrentSize;
+    private final AtomicLong reservedBytes = new AtomicLong();
+
+    public UploadBudget(DataWeaverProperties properties, MeterRegistry meterRegistry) {
+        this.maxConcurrentSize = properties.getUploads().getMaxConcurrentSize();
+        Gauge.builder("dataweaver.uploads.reserved", reservedBytes, AtomicLong::get)
+            .description("Upload bytes being read or rendered by generate-excel requests")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reserves {@code bytes} until the returned handle is closed. Rejects
+     * with 413 when the upload alone is over the budget and with 429 when
+     * the budget is taken by other requests. Closing more than once is
+     * harmless.
+     */
+    public Reservation reserve(long bytes) {
+        long maxBytes = maxConcurrentSize.toBytes();
+        if (bytes > maxBytes) {
+            throw new RequestRejectedException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "Upload is larger than the " + maxConcurrentSize + " that can be processed at once");
+        }
+        while (true) {
+            long reserved = reservedBytes.get();
+            if (reserved + bytes > maxBytes) {
+                throw new RequestRejectedException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many uploads in progress, retry later");
+            }
+            if (reservedBytes.compareAndSet(reserved, reserved + bytes)) {
+                return new Reservation(bytes);
+            }
+        }
+    }
+
+    public class Reservation implements AutoCloseable {
+
+        private final long bytes;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Reservation(long bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                reservedBytes.addAndGet(-bytes);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.dto.UploadInspection;
+import com.dataweaver.DataWeaver.exception.CustomException;
+import com.dataweaver.DataWeaver.exception.RequestRejectedException;
+import com.dataweaver.DataWeaver.model.TimesheetRecord;
+import com.dataweaver.DataWeaver.model.UploadFormat;
+import com.dataweaver.DataWeaver.reader.DelimitedTimesheetReader;
+import com.dataweaver.DataWeaver.reader.HoursParser;
+import com.dataweaver.DataWeaver.reader.SourceDates;
+import com.dataweaver.DataWeaver.reader.StreamingTimesheetReader;
+import com.dataweaver.DataWeaver.reader.TimesheetSample;
+
+/**
+ * Pre-flight check of an upload: reads its header and first
+ * {@code data-weaver.admission.sample-rows} rows with the streaming or
+ * delimited reader, whatever the ingestion mode, and rejects it with 400
+ * if the header lacks a column or a sampled date or hours value cannot be
+ * read. From the sample it estimates the rows, employees and cost of the
+ * whole upload for {@link AdmissionControl}.
+ * <p>
+ * Employees are estimated from the rows per employee day in the sample,
+ * spread over the whole months the sampled dates fall in; the report range
+ * of the request is not taken into account.
+ */
+@Component
+public class UploadInspector {
+
+    private final StreamingTimesheetReader streamingTimesheetReader;
+    private final DelimitedTimesheetReader delimitedTimesheetReader;
+    private final int sampleRows;
+
+    public UploadInspector(DataWeaverProperties properties, StreamingTimesheetReader streamingTimesheetReader,
+            DelimitedTimesheetReader delimitedTimesheetReader) {
+        this.streamingTimesheetReader = streamingTimesheetReader;
+        this.delimitedTimesheetReader = delimitedTimesheetReader;
+        this.sampleRows = Math.max(1, properties.getAdmission().getSampleRows());
+    }
+
+    public UploadInspection inspect(InputStream inputStream, UploadFormat format, long size) throws IOException {
+        return inspect(format, () -> format.isDelimited()
+            ? delimitedTimesheetReader.sample(inputStream, format, size, sampleRows)
+            : streamingTimesheetReader.sample(inputStream, sampleRows));
+    }
+
+    public UploadInspection inspect(Path file, UploadFormat format) throws IOException {
+        return inspect(format, () -> format.isDelimited()
+            ? delimitedTimesheetReader.sample(file, format, sampleRows)
+            : streamingTimesheetReader.sample(file, sampleRows));
+    }
+
+    @FunctionalInterface
+    private interface SampleSource {
+        TimesheetSample read() throws IOException;
+    }
+
+    private UploadInspection inspect(UploadFormat format, SampleSource source) throws IOException {
+        TimesheetSample sample;
+        try {
+            sample = source.read();
+        } catch (RequestRejectedException e) {
+            throw e;
+        } catch (CustomException | IOException | UnsupportedFileFormatException e) {
+            throw new RequestRejectedException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        Map<String, Integer> employees = new HashMap<>();
+        Set<Long> employeeDays = new HashSet<>();
+        int entries = 0;
+        int firstDay = Integer.MAX_VALUE;
+        int lastDay = Integer.MIN_VALUE;
+        int rowNumber = 0;
+        for (TimesheetRecord record: sample.getRecords()) {
+            rowNumber++;
+            // rows the pipeline skips are not checked either
+            if (record.getEmployeeName() == null || (record.getDate() == null && !record.hasEpochDay())) {
+                continue;
+            }
+            int epochDay = record.hasEpochDay() ? record.getEpochDay() : parseDate(record.getDate(), rowNumber);
+            checkHours(record.getTaskHours(), "task hours", rowNumber);
+            checkHours(record.getTotalHours(), "total hours", rowNumber);
+            Integer employee = employees.computeIfAbsent(record.getEmployeeName(), name -> employees.size());
+            employeeDays.add((long) employee << 32 | (epochDay & 0xffffffffL));
+            firstDay = Math.min(firstDay, epochDay);
+            lastDay = Math.max(lastDay, epochDay);
+            entries++;
+        }
+        if (entries == 0 && sample.isComplete()) {
+            throw new RequestRejectedException(HttpStatus.BAD_REQUEST, "Uploaded timesheet has no entries");
+        }
+
+        long estimatedRows = sample.getEstimatedRows();
+        long estimatedEmployees = employees.size();
+        long reportDays = 0;
+        LocalDate firstDate = null;
+        LocalDate lastDate = null;
+        if (entries > 0) {
+            firstDate = LocalDate.ofEpochDay(firstDay);
+            lastDate = LocalDate.ofEpochDay(lastDay);
+            reportDays = YearMonth.from(lastDate).atEndOfMonth().toEpochDay() - firstDate.withDayOfMonth(1).toEpochDay() + 1;
+            if (!sample.isComplete()) {
+                double rowsPerEmployeeDay = (double) entries / employeeDays.size();
+                long employeeDaysEstimate = Math.round(estimatedRows / rowsPerEmployeeDay);
+                estimatedEmployees = Math.max(estimatedEmployees, (employeeDaysEstimate + reportDays - 1) / reportDays);
+            }
+        }
+        long estimatedCost = estimatedRows + estimatedEmployees * reportDays;
+        return new UploadInspection(format, sample.getRecords().size(), sample.isComplete(), estimatedRows,
+            estimatedEmployees, firstDate, lastDate, estimatedCost, null);
+    }
+
+    private int parseDate(String date, int rowNumber) {
+        try {
+            return SourceDates.parseEpochDay(date);
+        } catch (DateTimeParseException e) {
+            throw new RequestRejectedException(HttpStatus.BAD_REQUEST,
+                "Data row " + rowNumber + " has '" + date + "' as its date, which is not like 'Jan 05, 2025'");
+        }
+    }
+
+    private void checkHours(String hours, String column, int rowNumber) {
+        try {
+            HoursParser.parse(hours);
+        } catch (NumberFormatException e) {
+            throw new RequestRejectedException(HttpStatus.BAD_REQUEST,
+                "Data row " + rowNumber + " has '" + hours + "' as its " + column + ", which is neither HH:MM nor a number");
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Thread factories for the pools of the job and batch services. With
+ * {@code spring.threads.virtual.enabled=true} on Java 21 or later, the same
+ * switch Spring Boot uses for Tomcat and async request processing, workers
+ * are virtual threads; otherwise they are named platform threads. Pools
+ * running only CPU-bound work, such as the sheet builders, stay on platform
+ * threads either way.
+ */
+@Component
+public class WorkerThreads {
+
+    private final boolean virtual;
+
+    public WorkerThreads(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+    }
+
+    public ThreadFactory factory(String threadNamePrefix) {
+        return virtual
+            ? new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory()
+            : new CustomizableThreadFactory(threadNamePrefix);
+    }
+
+}
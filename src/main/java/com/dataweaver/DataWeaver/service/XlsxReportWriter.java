@@ -0,0 +1,360 @@
+package com.dataweaver.DataWeaver.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.dataweaver.DataWeaver.config.ColumnSizing;
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.model.DayKind;
+import com.dataweaver.DataWeaver.model.EmployeeTimesheet;
+import com.dataweaver.DataWeaver.model.OutputFormat;
+import com.dataweaver.DataWeaver.service.PipelineMetrics.Stage;
+import com.dataweaver.DataWeaver.writer.ColumnWidthEstimator;
+import com.dataweaver.DataWeaver.writer.DayRow;
+import com.dataweaver.DataWeaver.writer.EmployeeSheet;
+import com.dataweaver.DataWeaver.writer.EmployeeSheetBuilder;
+import com.dataweaver.DataWeaver.writer.MonthSkeleton;
+import com.dataweaver.DataWeaver.writer.SheetNames;
+import com.dataweaver.DataWeaver.writer.SheetPlan;
+import com.dataweaver.DataWeaver.writer.WorkbookStyleRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Writes the report as a styled workbook: a summary sheet followed by one
+ * sheet per employee, or per employee and month. The workbook is rendered
+ * into SXSSF temp files under a {@link ProcessingLimiter} permit and then
+ * serialized. Stage methods that are package-private rather than private
+ * are timed individually by the JMH benchmarks in {@code src/jmh/java}.
+ */
+@Component
+public class XlsxReportWriter implements ReportWriter {
+
+    private static final String DATE_FORMAT = EmployeeSheetBuilder.DATE_FORMAT;
+
+    private final DataWeaverProperties properties;
+    private final EmployeeSheetBuilder employeeSheetBuilder;
+    private final ProcessingLimiter processingLimiter;
+    private final PipelineMetrics pipelineMetrics;
+    private final ExecutorService sheetBuilderPool;
+    private final int buildWindow;
+
+    public XlsxReportWriter(DataWeaverProperties properties, EmployeeSheetBuilder employeeSheetBuilder,
+            ProcessingLimiter processingLimiter, PipelineMetrics pipelineMetrics) {
+        this.properties = properties;
+        this.employeeSheetBuilder = employeeSheetBuilder;
+        this.processingLimiter = processingLimiter;
+        this.pipelineMetrics = pipelineMetrics;
+        checkCompressionLevel(properties.getOutput().getCompressionLevel());
+        this.sheetBuilderPool = Executors.newFixedThreadPool(properties.getProcessing().getParallelism(),
+            new CustomizableThreadFactory("sheet-builder-"));
+        this.buildWindow = properties.getProcessing().getParallelism() * 2;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sheetBuilderPool.shutdownNow();
+    }
+
+    @Override
+    public OutputFormat getFormat() {
+        return OutputFormat.XLSX;
+    }
+
+    /**
+     * SXSSF temp files are removed even when the stream fails part way, e.g.
+     * when the client disconnects.
+     */
+    @Override
+    public void write(Report report, OutputStream outputStream) throws IOException {
+        ColumnSizing columnSizing = report.getOptions().getColumnSizing();
+        PipelineMetrics.StageTimer timer = report.getTimer();
+        ProcessingLimiter.Permit permit = processingLimiter.acquire();
+        timer.switchTo(Stage.SUMMARY);
+        SXSSFWorkbook outputWorkbook = createWorkbook();
+        WorkbookStyleRegistry styles = new WorkbookStyleRegistry(outputWorkbook);
+        String outcome = PipelineMetrics.FAILURE;
+        try {
+            // POI stamps the creation time by default; pin it so the same upload always yields the same bytes
+            Date created = Date.from(LocalDate.ofEpochDay(report.getFirstDay()).atStartOfDay(ZoneOffset.UTC).toInstant());
+            outputWorkbook.getXSSFWorkbook().getProperties().getCoreProperties().setCreated(Optional.of(created));
+
+            SheetNames sheetNames = new SheetNames();
+            addSummaryPage(outputWorkbook, report, styles, columnSizing, sheetNames);
+            timer.switchTo(Stage.SHEETS);
+            List<SheetPlan> plans = employeeSheetBuilder.plan(report.getIndex(), report.getFirstDay(),
+                report.getLastDay(), report.getOptions().getSheetLayout(), sheetNames);
+            addEachTimeSheet(outputWorkbook, plans, styles, columnSizing, report.getProgressListener(), timer);
+            // serializing is paced by whoever reads the output, so a slow client must not hold the permit
+            permit.close();
+            timer.switchTo(Stage.SERIALIZE);
+            outputWorkbook.write(outputStream);
+            outcome = PipelineMetrics.SUCCESS;
+        } finally {
+            permit.close();
+            pipelineMetrics.recordStyles(outcome, styles.getStyleCount());
+            outputWorkbook.dispose();
+            outputWorkbook.close();
+        }
+    }
+
+    /**
+     * A workbook encoded as configured: text inline or in a shared strings
+     * table, and the package deflated at the configured level.
+     */
+    SXSSFWorkbook createWorkbook() {
+        DataWeaverProperties.Output output = properties.getOutput();
+        int compressionLevel = output.getCompressionLevel();
+        return new SXSSFWorkbook(null, output.getRowAccessWindowSize(), false, output.isSharedStrings()) {
+            @Override
+            protected ZipArchiveOutputStream createArchiveOutputStream(OutputStream out) {
+                ZipArchiveOutputStream zip = super.createArchiveOutputStream(out);
+                zip.setLevel(compressionLevel);
+                return zip;
+            }
+        };
+    }
+
+    static void checkCompressionLevel(int compressionLevel) {
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalStateException("data-weaver.output.compression-level must be between -1 and 9");
+        }
+    }
+
+    private void addSummaryPage(SXSSFWorkbook outputWorkbook, Report report, WorkbookStyleRegistry styles,
+            ColumnSizing columnSizing, SheetNames sheetNames) {
+        SXSSFSheet outputSheet = outputWorkbook.createSheet(sheetNames.unique("Summary"));
+        String[] summaryColumns = {"Names", "Hours", "New/Existing"};
+        ColumnWidthEstimator widths = new ColumnWidthEstimator(summaryColumns.length);
+        startSheet(outputSheet, summaryColumns, styles, columnSizing, widths);
+        fillSummarySheet(outputSheet, report, styles.border(), widths);
+        fitColumnContent(summaryColumns.length, outputSheet, columnSizing, widths);
+    }
+
+    /**
+     * Employee sheets are built concurrently on the sheet-builder pool, then
+     * written into the workbook one by one on the calling thread, in plan
+     * order. POI workbooks are not thread-safe, and writing in a fixed order
+     * keeps the output identical whatever the pool size. At most
+     * {@code buildWindow} sheets are being built or waiting to be written at
+     * a time, so built sheets cannot pile up ahead of a slow writer; the
+     * next plan is submitted as each one is written.
+     */
+    private void addEachTimeSheet(SXSSFWorkbook outputWorkbook, List<SheetPlan> plans, WorkbookStyleRegistry styles,
+            ColumnSizing columnSizing, ProgressListener progressListener, PipelineMetrics.StageTimer timer)
+            throws IOException {
+        Deque<Future<EmployeeSheet>> builds = new ArrayDeque<>(buildWindow);
+        Iterator<SheetPlan> pending = plans.iterator();
+        try {
+            String[] columns = EmployeeSheetBuilder.COLUMNS;
+            DayRowStyles rowStyles = new DayRowStyles(styles);
+            int sheetsWritten = 0;
+            while (pending.hasNext() || !builds.isEmpty()) {
+                while (pending.hasNext() && builds.size() < buildWindow) {
+                    SheetPlan plan = pending.next();
+                    builds.add(sheetBuilderPool.submit(() -> employeeSheetBuilder.build(plan)));
+                }
+                EmployeeSheet employeeSheet = awaitBuild(builds.poll());
+                SXSSFSheet currentSheet = outputWorkbook.createSheet(employeeSheet.getSheetName());
+                ColumnWidthEstimator widths = employeeSheet.getWidths();
+                startSheet(currentSheet, columns, styles, columnSizing, widths);
+                addEachPersonSheetData(rowStyles, currentSheet, employeeSheet, columns.length);
+                timer.switchTo(Stage.SIZING);
+                fitColumnContent(columns.length, currentSheet, columnSizing, widths);
+                timer.switchTo(Stage.SHEETS);
+                progressListener.onProgress(++sheetsWritten, plans.size());
+            }
+        } finally {
+            builds.forEach(build -> build.cancel(true));
+        }
+    }
+
+    private EmployeeSheet awaitBuild(Future<EmployeeSheet> build) throws IOException {
+        try {
+            return build.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while building employee sheets", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Failed to build employee sheet", e.getCause());
+        }
+    }
+
+    void startSheet(SXSSFSheet sheet, String[] columns, WorkbookStyleRegistry styles,
+            ColumnSizing columnSizing, ColumnWidthEstimator widths) {
+        if (columnSizing == ColumnSizing.EXACT) {
+            sheet.trackAllColumnsForAutoSizing();
+        }
+        addColumns(columns, sheet);
+        applyColour(styles, sheet.getRow(0), columns.length, IndexedColors.LIGHT_BLUE.getIndex());
+        widths.track(sheet.getRow(0));
+    }
+
+    private void applyStyle(Row row, CellStyle style, int length) {
+        for (int column = 0; column < length; column++) {
+            row.getCell(column).setCellStyle(style);
+        }
+    }
+
+    private void applyColour(WorkbookStyleRegistry styles, Row row, int length, short colourIndex) {
+        applyStyle(row, styles.borderWithFill(colourIndex), length);
+    }
+
+    void fitColumnContent(int length, Sheet sheet, ColumnSizing columnSizing, ColumnWidthEstimator widths) {
+        if (columnSizing == ColumnSizing.FAST) {
+            widths.applyTo(sheet);
+            return;
+        }
+        for (int column = 0; column < length; column++) {
+            sheet.autoSizeColumn(column);
+        }
+    }
+
+    /**
+     * Writes each day row in one pass, taking the dates from the sheet's
+     * skeleton and the styles of the row's kind from {@code rowStyles}.
+     */
+    void addEachPersonSheetData(DayRowStyles rowStyles, Sheet destinationSheet,
+            EmployeeSheet employeeSheet, int length) {
+        MonthSkeleton skeleton = employeeSheet.getSkeleton();
+        List<DayRow> dayRows = employeeSheet.getRows();
+        for (int day = 0; day < dayRows.size(); day++) {
+            DayRow dayRow = dayRows.get(day);
+            CellStyle[] styles = rowStyles.of(dayRow.getKind(), length);
+            Row row = destinationSheet.createRow(day + 1);
+            setText(createCell(row, 0, styles), employeeSheet.getEmployeeName());
+            createCell(row, 1, styles).setCellValue(skeleton.excelSerial(day));
+            setText(createCell(row, 2, styles), dayRow.getTitle());
+            setText(createCell(row, 3, styles), dayRow.getDescription());
+            Cell projectTimeCell = createCell(row, 4, styles);
+            if (dayRow.hasProjectTime()) {
+                projectTimeCell.setCellValue(dayRow.getProjectTime());
+            }
+        }
+    }
+
+    private Cell createCell(Row row, int column, CellStyle[] styles) {
+        Cell cell = row.createCell(column);
+        cell.setCellStyle(styles[column]);
+        return cell;
+    }
+
+    /**
+     * Empty values leave the cell blank rather than writing an empty string.
+     */
+    private void setText(Cell cell, String value) {
+        if (!value.isEmpty()) {
+            cell.setCellValue(value);
+        }
+    }
+
+    private void fillSummarySheet(Sheet destinationSheet, Report report, CellStyle style, ColumnWidthEstimator widths) {
+        int rowIndex = 1;
+
+        for (EmployeeTimesheet employee: report.getIndex().getEmployees()) {
+            Row row = destinationSheet.createRow(rowIndex++);
+            Cell cell = row.createCell(0);
+            cell.setCellValue(employee.getName());
+
+            Cell hoursCell = row.createCell(1);
+            hoursCell.setCellValue(report.summaryHours(employee));
+
+            Cell thirdCol = row.createCell(2);
+            thirdCol.setCellValue("Existing");
+            applyStyle(row, style, 3);
+            widths.track(row);
+        }
+
+        Row blankRow = destinationSheet.createRow(rowIndex++);
+        Cell blankCell = blankRow.createCell(0);
+
+        Cell secondCell = blankRow.createCell(1);
+        Cell thirdCell = blankRow.createCell(2);
+        applyStyle(blankRow, style, 3);
+
+        Row totalHoursRow = destinationSheet.createRow(rowIndex++);
+        Cell totalHoursFirstCol = totalHoursRow.createCell(0);
+        totalHoursFirstCol.setCellValue("Total Hours");
+
+        Cell totalHoursSecondCol = totalHoursRow.createCell(1);
+        totalHoursSecondCol.setCellValue(report.summaryTotalHours());
+
+        Cell blankThirdCol = totalHoursRow.createCell(2);
+        applyStyle(totalHoursRow, style, 3);
+        widths.track(totalHoursRow);
+    }
+
+    /**
+     * The styles of a day row's cells for each kind of day, with the date
+     * format on the date column. Each kind's styles are looked up in the
+     * registry the first time a row of that kind is written, so the
+     * workbook's styles are created in the same order as before.
+     */
+    static class DayRowStyles {
+
+        private final WorkbookStyleRegistry styles;
+        private final CellStyle[][] stylesByKind = new CellStyle[DayKind.values().length][];
+
+        DayRowStyles(WorkbookStyleRegistry styles) {
+            this.styles = styles;
+        }
+
+        CellStyle[] of(DayKind kind, int length) {
+            CellStyle[] rowStyles = stylesByKind[kind.ordinal()];
+            if (rowStyles == null) {
+                rowStyles = new CellStyle[length];
+                if (kind == DayKind.WEEKEND || kind == DayKind.HOLIDAY) {
+                    Arrays.fill(rowStyles, styles.borderWithFill(IndexedColors.GREEN.getIndex()));
+                    rowStyles[1] = styles.borderWithFillAndDateFormat(IndexedColors.GREEN.getIndex(), DATE_FORMAT);
+                } else if (kind == DayKind.LEAVE) {
+                    Arrays.fill(rowStyles, styles.borderWithFill(IndexedColors.SKY_BLUE.getIndex()));
+                    rowStyles[1] = styles.borderWithFillAndDateFormat(IndexedColors.SKY_BLUE.getIndex(), DATE_FORMAT);
+                } else {
+                    Arrays.fill(rowStyles, styles.border());
+                    rowStyles[1] = styles.borderWithDateFormat(DATE_FORMAT);
+                }
+                stylesByKind[kind.ordinal()] = rowStyles;
+            }
+            return rowStyles;
+        }
+
+    }
+
+    private void addColumns(String[] columns, Sheet sheet) {
+        Row row = sheet.createRow(0);
+        int columnIndex = 0;
+        for (String column: columns) {
+            Cell cell = row.createCell(columnIndex++);
+            cell.setCellValue(column);
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.dataweaver.DataWeaver.writer;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+/**
+ * Tracks the longest line of text per column while rows are written and
+ * turns it into a column width, avoiding the AWT font measurement done by
+ * {@link Sheet#autoSizeColumn(int)}. Widths are approximate: every
+ * character is counted as one default-font character width.
+ */
+public class ColumnWidthEstimator {
+
+    private static final int PADDING_CHARACTERS = 2;
+    private static final int MAX_WIDTH_CHARACTERS = 255;
+
+    private final int[] maxCharacters;
+
+    public ColumnWidthEstimator(int columnCount) {
+        this.maxCharacters = new int[columnCount];
+    }
+
+    public void track(Row row) {
+        for (int column = 0; column < maxCharacters.length; column++) {
+            Cell cell = row.getCell(column);
+            if (cell != null) {
+                track(column, cell);
+            }
+        }
+    }
+
+    public void track(int column, String value) {
+        int length = longestLine(value);
+        if (length > maxCharacters[column]) {
+            maxCharacters[column] = length;
+        }
+    }
+
+    /**
+     * Tracks a numeric cell by the length Excel's General format shows it with.
+     */
+    public void track(int column, double value) {
+        track(column, NumberToTextConverter.toText(value));
+    }
+
+    public void applyTo(Sheet sheet) {
+        for (int column = 0; column < maxCharacters.length; column++) {
+            int characters = Math.min(maxCharacters[column] + PADDING_CHARACTERS, MAX_WIDTH_CHARACTERS);
+            sheet.setColumnWidth(column, characters * 256);
+        }
+    }
+
+    private void track(int column, Cell cell) {
+        switch (cell.getCellType()) {
+            case STRING:
+                track(column, cell.getStringCellValue());
+                break;
+            case NUMERIC:
+                track(column, cell.getNumericCellValue());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static int longestLine(String value) {
+        int longest = 0;
+        int current = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '\n') {
+                longest = Math.max(longest, current);
+                current = 0;
+            } else {
+                current++;
+            }
+        }
+        return Math.max(longest, current);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.dataweaver.DataWeaver.writer;
+
+import com.dataweaver.DataWeaver.model.DayKind;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Final cell values of one day on an employee sheet, ready to be written.
+ * Project time is {@link Double#NaN} on days without entries.
+ */
+@Getter
+@AllArgsConstructor
+public class DayRow {
+
+    private final int epochDay;
+    private final String title;
+    private final String description;
+    private final double projectTime;
+    private final DayKind kind;
+
+    public boolean hasProjectTime() {
+        return !Double.isNaN(projectTime);
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.dataweaver.DataWeaver.writer;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The rows of one employee's sheet, built off the request thread and
+ * written into the workbook later.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeSheet {
+
+    private final String sheetName;
+    private final String employeeName;
+    /** Dates and day kinds of the rows, which are in the skeleton's day order. */
+    private final MonthSkeleton skeleton;
+    private final List<DayRow> rows;
+    private final ColumnWidthEstimator widths;
+
+}
@@ -0,0 +1,131 @@
+package com.dataweaver.DataWeaver.writer;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.dataweaver.DataWeaver.config.SheetLayout;
+import com.dataweaver.DataWeaver.model.DayKind;
+import com.dataweaver.DataWeaver.model.EmployeeTimesheet;
+import com.dataweaver.DataWeaver.model.TimesheetIndex;
+import com.dataweaver.DataWeaver.reader.SourceDates;
+
+/**
+ * Turns one employee's aggregated entries into the rows of their sheet.
+ * Builds touch no workbook state, so several employees can be built
+ * concurrently. The per-day work that is the same for every employee is
+ * done once per range, in a cached {@link MonthSkeleton}.
+ */
+@Component
+public class EmployeeSheetBuilder {
+
+    public static final String[] COLUMNS = {"Name", "Date", "Title", "Description", "Project Time"};
+
+    /** Excel number format of the date column. */
+    public static final String DATE_FORMAT = "mmm dd, yyyy";
+
+    static final DateTimeFormatter DISPLAY_DATE_FORMAT = DateTimeFormatter.ofPattern(SourceDates.SOURCE_PATTERN);
+    private static final DateTimeFormatter MONTH_SUFFIX_FORMAT = DateTimeFormatter.ofPattern("MMM yyyy");
+    // ranges are almost always whole months, so a handful covers every request
+    private static final int MAX_CACHED_SKELETONS = 64;
+
+    private final WorkCalendar workCalendar;
+    private final Map<Long, MonthSkeleton> skeletons = new ConcurrentHashMap<>();
+
+    public EmployeeSheetBuilder(WorkCalendar workCalendar) {
+        this.workCalendar = workCalendar;
+    }
+
+    /**
+     * Lists the sheets to build for the epoch days {@code firstDay} to
+     * {@code lastDay}, in output order: employees by name, then months.
+     * Sheets are named after the employee, with the month appended when a
+     * monthly layout spans more than one month.
+     */
+    public List<SheetPlan> plan(TimesheetIndex index, int firstDay, int lastDay, SheetLayout layout,
+            SheetNames sheetNames) {
+        List<int[]> segments = new ArrayList<>();
+        if (layout == SheetLayout.RANGE) {
+            segments.add(new int[] {firstDay, lastDay});
+        } else {
+            LocalDate monthStart = LocalDate.ofEpochDay(firstDay).withDayOfMonth(1);
+            while (monthStart.toEpochDay() <= lastDay) {
+                int monthEnd = (int) monthStart.plusMonths(1).toEpochDay() - 1;
+                segments.add(new int[] {Math.max(firstDay, (int) monthStart.toEpochDay()), Math.min(lastDay, monthEnd)});
+                monthStart = monthStart.plusMonths(1);
+            }
+        }
+
+        List<SheetPlan> plans = new ArrayList<>();
+        List<MonthSkeleton> segmentSkeletons = new ArrayList<>(segments.size());
+        for (int[] segment: segments) {
+            segmentSkeletons.add(skeleton(segment[0], segment[1]));
+        }
+        for (EmployeeTimesheet employee: index.getEmployees()) {
+            for (MonthSkeleton skeleton: segmentSkeletons) {
+                String name = segments.size() == 1
+                    ? employee.getName()
+                    : employee.getName() + " " + MONTH_SUFFIX_FORMAT.format(LocalDate.ofEpochDay(skeleton.getFirstDay()));
+                plans.add(new SheetPlan(employee, sheetNames.unique(name), skeleton));
+            }
+        }
+        return plans;
+    }
+
+    /** The skeleton of the epoch days {@code firstDay} to {@code lastDay}, shared by every sheet covering them. */
+    public MonthSkeleton skeleton(int firstDay, int lastDay) {
+        long key = ((long) firstDay << 32) | (lastDay & 0xffffffffL);
+        MonthSkeleton skeleton = skeletons.get(key);
+        if (skeleton == null) {
+            if (skeletons.size() >= MAX_CACHED_SKELETONS) {
+                skeletons.clear();
+            }
+            skeleton = skeletons.computeIfAbsent(key, range -> new MonthSkeleton(firstDay, lastDay, workCalendar));
+        }
+        return skeleton;
+    }
+
+    public EmployeeSheet build(SheetPlan plan) {
+        EmployeeTimesheet employee = plan.getEmployee();
+        MonthSkeleton skeleton = plan.getSkeleton();
+        List<DayRow> rows = new ArrayList<>(skeleton.length());
+        ColumnWidthEstimator widths = new ColumnWidthEstimator(COLUMNS.length);
+        widths.track(0, employee.getName());
+        widths.track(1, skeleton.displayDate());
+
+        for (int day = 0; day < skeleton.length(); day++) {
+            int epochDay = skeleton.getFirstDay() + day;
+            String description = "";
+            double projectTime = Double.NaN;
+            if (employee.hasEntries(epochDay)) {
+                description = employee.getDescription(epochDay);
+                projectTime = employee.getHours(epochDay);
+            }
+
+            String title = "";
+            DayKind kind = skeleton.kind(day);
+            if (kind == DayKind.WORKDAY) {
+                title = workCalendar.getWorkTitle();
+                if (description.equals("")) {
+                    description = workCalendar.getLeaveDescription();
+                    kind = DayKind.LEAVE;
+                }
+            }
+
+            DayRow row = new DayRow(epochDay, title, description, projectTime, kind);
+            widths.track(2, row.getTitle());
+            widths.track(3, row.getDescription());
+            if (row.hasProjectTime()) {
+                widths.track(4, projectTime);
+            }
+            rows.add(row);
+        }
+        return new EmployeeSheet(plan.getSheetName(), employee.getName(), skeleton, rows, widths);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.dataweaver.DataWeaver.writer;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Renders hours as text the way Excel shows a number in General format:
+ * at most 15 significant digits and no trailing zeros, so sums such as
+ * 1.2 + 2.4 read 3.6 rather than 3.5999999999999996.
+ */
+public final class HoursText {
+
+    private static final MathContext EXCEL_PRECISION = new MathContext(15);
+
+    private HoursText() {
+    }
+
+    public static String format(double hours) {
+        if (hours == Math.rint(hours) && Math.abs(hours) < 1e15) {
+            return Long.toString((long) hours);
+        }
+        return new BigDecimal(hours).round(EXCEL_PRECISION).stripTrailingZeros().toPlainString();
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.dataweaver.DataWeaver.writer;
+
+import java.time.LocalDate;
+
+import com.dataweaver.DataWeaver.model.DayKind;
+import com.dataweaver.DataWeaver.reader.SourceDates;
+
+/**
+ * The part of an employee sheet that is the same for every employee
+ * covering the same days, usually a month: each day's kind in the
+ * {@link WorkCalendar} and its date as an Excel serial and as ISO text.
+ * Built once per range by {@link EmployeeSheetBuilder} and shared by all
+ * sheets of that range, so only names, descriptions and hours are worked
+ * out per employee.
+ */
+public class MonthSkeleton {
+
+    private final int firstDay;
+    private final DayKind[] kinds;
+    private final double[] excelSerials;
+    private final String[] isoDates;
+    private final String displayDate;
+
+    MonthSkeleton(int firstDay, int lastDay, WorkCalendar workCalendar) {
+        int length = lastDay - firstDay + 1;
+        this.firstDay = firstDay;
+        this.kinds = new DayKind[length];
+        this.excelSerials = new double[length];
+        this.isoDates = new String[length];
+        for (int day = 0; day < length; day++) {
+            kinds[day] = workCalendar.classify(firstDay + day);
+            excelSerials[day] = SourceDates.toExcelSerial(firstDay + day);
+            isoDates[day] = LocalDate.ofEpochDay(firstDay + day).toString();
+        }
+        this.displayDate = EmployeeSheetBuilder.DISPLAY_DATE_FORMAT.format(LocalDate.ofEpochDay(firstDay));
+    }
+
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    public int getLastDay() {
+        return firstDay + kinds.length - 1;
+    }
+
+    public int length() {
+        return kinds.length;
+    }
+
+    /** {@link DayKind#WORKDAY}, {@link DayKind#WEEKEND} or {@link DayKind#HOLIDAY}; leave depends on the employee. */
+    public DayKind kind(int day) {
+        return kinds[day];
+    }
+
+    public double excelSerial(int day) {
+        return excelSerials[day];
+    }
+
+    public String isoDate(int day) {
+        return isoDates[day];
+    }
+
+    /** The first day as the date column shows it; every date renders at the same width. */
+    String displayDate() {
+        return displayDate;
+    }
+
+}
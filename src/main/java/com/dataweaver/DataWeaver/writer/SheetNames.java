@@ -0,0 +1,31 @@
+package com.dataweaver.DataWeaver.writer;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.poi.ss.util.WorkbookUtil;
+
+/**
+ * Hands out sheet names Excel accepts for one workbook. Valid, unused names
+ * are returned as they are; otherwise invalid characters are replaced, the
+ * name is cut to 31 characters and, if it is taken, numbered.
+ */
+public class SheetNames {
+
+    private static final int MAX_LENGTH = 31;
+
+    // Excel compares sheet names case-insensitively
+    private final Set<String> used = new HashSet<>();
+
+    public String unique(String proposed) {
+        String name = WorkbookUtil.createSafeSheetName(proposed);
+        for (int number = 2; !used.add(name.toLowerCase(Locale.ROOT)); number++) {
+            String suffix = " (" + number + ")";
+            String base = WorkbookUtil.createSafeSheetName(proposed);
+            name = base.substring(0, Math.min(base.length(), MAX_LENGTH - suffix.length())) + suffix;
+        }
+        return name;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.dataweaver.DataWeaver.writer;
+
+import com.dataweaver.DataWeaver.model.EmployeeTimesheet;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One employee sheet to be built: whose it is, its name and the skeleton of
+ * the epoch days it covers.
+ */
+@Getter
+@AllArgsConstructor
+public class SheetPlan {
+
+    private final EmployeeTimesheet employee;
+    private final String sheetName;
+    private final MonthSkeleton skeleton;
+
+    public int getFirstDay() {
+        return skeleton.getFirstDay();
+    }
+
+    public int getLastDay() {
+        return skeleton.getLastDay();
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.dataweaver.DataWeaver.writer;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.BitSet;
+
+import org.springframework.stereotype.Component;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.model.DayKind;
+
+import lombok.Getter;
+
+/**
+ * Which days are worked, from {@code data-weaver.days.*}. The weekend and
+ * holidays are compiled at startup into a day-of-week table and a bitset of
+ * holiday epoch days, so classifying a day takes two array lookups.
+ */
+@Component
+public class WorkCalendar {
+
+    private static final int DAYS_PER_WEEK = 7;
+
+    private final DayKind[] kindsByDayOfWeek = new DayKind[DAYS_PER_WEEK];
+    private final BitSet holidays = new BitSet();
+    private final int firstHoliday;
+    @Getter
+    private final String workTitle;
+    @Getter
+    private final String leaveDescription;
+
+    public WorkCalendar(DataWeaverProperties properties) {
+        DataWeaverProperties.Days days = properties.getDays();
+        for (DayOfWeek dayOfWeek: DayOfWeek.values()) {
+            kindsByDayOfWeek[dayOfWeek.ordinal()] = days.getWeekend().contains(dayOfWeek) ? DayKind.WEEKEND : DayKind.WORKDAY;
+        }
+        int first = Integer.MAX_VALUE;
+        for (LocalDate holiday: days.getHolidays()) {
+            first = Math.min(first, (int) holiday.toEpochDay());
+        }
+        this.firstHoliday = first;
+        for (LocalDate holiday: days.getHolidays()) {
+            holidays.set((int) holiday.toEpochDay() - firstHoliday);
+        }
+        this.workTitle = days.getWorkTitle();
+        this.leaveDescription = days.getLeaveDescription();
+    }
+
+    /**
+     * {@link DayKind#WEEKEND} or {@link DayKind#HOLIDAY} for days that are
+     * not worked, otherwise {@link DayKind#WORKDAY}. A holiday on a weekend
+     * day counts as weekend.
+     */
+    public DayKind classify(int epochDay) {
+        // 1970-01-01 was a Thursday; 0 is Monday
+        DayKind kind = kindsByDayOfWeek[Math.floorMod(epochDay + 3, DAYS_PER_WEEK)];
+        if (kind == DayKind.WORKDAY && epochDay >= firstHoliday && holidays.get(epochDay - firstHoliday)) {
+            return DayKind.HOLIDAY;
+        }
+        return kind;
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.dataweaver.DataWeaver.writer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * Creates each cell style a workbook needs once and hands out the same
+ * instance afterwards. Styles belong to a single workbook, so a registry
+ * must not be shared between workbooks.
+ */
+public class WorkbookStyleRegistry {
+
+    private final Workbook workbook;
+    private CellStyle borderStyle;
+    private final Map<Short, CellStyle> fillStyles = new HashMap<>();
+    private final Map<String, CellStyle> dateStyles = new HashMap<>();
+    private final Map<String, Map<Short, CellStyle>> filledDateStyles = new HashMap<>();
+
+    public WorkbookStyleRegistry(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    /** Medium border on all sides, centred, wrapped text. */
+    public CellStyle border() {
+        if (borderStyle == null) {
+            borderStyle = createBorderStyle();
+        }
+        return borderStyle;
+    }
+
+    /** {@link #border()} with a solid fill of the given indexed colour. */
+    public CellStyle borderWithFill(short colourIndex) {
+        return fillStyles.computeIfAbsent(colourIndex, colour -> {
+            CellStyle style = createBorderStyle();
+            style.setFillForegroundColor(colour);
+            style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            return style;
+        });
+    }
+
+    /** {@link #border()} with a date number format such as {@code "mmm dd, yyyy"}. */
+    public CellStyle borderWithDateFormat(String format) {
+        return dateStyles.computeIfAbsent(format, pattern -> {
+            CellStyle style = createBorderStyle();
+            style.setDataFormat(workbook.createDataFormat().getFormat(pattern));
+            return style;
+        });
+    }
+
+    /** {@link #borderWithFill(short)} with a date number format. */
+    public CellStyle borderWithFillAndDateFormat(short colourIndex, String format) {
+        return filledDateStyles.computeIfAbsent(format, pattern -> new HashMap<>())
+            .computeIfAbsent(colourIndex, colour -> {
+                CellStyle style = workbook.createCellStyle();
+                style.cloneStyleFrom(borderWithFill(colour));
+                style.setDataFormat(workbook.createDataFormat().getFormat(format));
+                return style;
+            });
+    }
+
+    /** Number of styles in the workbook, including POI's default style. */
+    public int getStyleCount() {
+        return workbook.getNumCellStyles();
+    }
+
+    private CellStyle createBorderStyle() {
+        CellStyle style = workbook.createCellStyle();
+        style.setBorderTop(BorderStyle.MEDIUM);
+        style.setBorderBottom(BorderStyle.MEDIUM);
+        style.setBorderLeft(BorderStyle.MEDIUM);
+        style.setBorderRight(BorderStyle.MEDIUM);
+        style.setAlignment(HorizontalAlignment.CENTER);
+        style.setVerticalAlignment(VerticalAlignment.CENTER);
+        style.setWrapText(true);
+        return style;
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.dataweaver.DataWeaver.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class EmployeeTimesheetTests {
+
+    private static final int JANUARY_31 = day(2025, 1, 31);
+    private static final int FEBRUARY_1 = day(2025, 2, 1);
+
+    @Test
+    void entriesOfADayAreJoinedAndSummed() {
+        EmployeeTimesheet employee = new EmployeeTimesheet("Alice");
+        employee.addEntry(JANUARY_31, "Code review", 2.5);
+        employee.addEntry(JANUARY_31, "Deployment", 3);
+        employee.addEntry(JANUARY_31, "Code review", 1);
+
+        assertTrue(employee.hasEntries(JANUARY_31));
+        assertEquals("Code review, Deployment", employee.getDescription(JANUARY_31));
+        assertEquals(6.5, employee.getHours(JANUARY_31));
+    }
+
+    @Test
+    void onlyTheFirstDailyTotalCounts() {
+        EmployeeTimesheet employee = new EmployeeTimesheet("Alice");
+        employee.addDailyTotal(JANUARY_31, 8);
+        employee.addDailyTotal(JANUARY_31, 8);
+        employee.addDailyTotal(JANUARY_31, 5);
+
+        assertTrue(employee.hasDailyTotal(JANUARY_31));
+        assertEquals(8.0, employee.getDailyTotal(JANUARY_31));
+    }
+
+    @Test
+    void daysWithoutEntriesAreEmpty() {
+        EmployeeTimesheet employee = new EmployeeTimesheet("Alice");
+        employee.addEntry(JANUARY_31, "Code review", 2);
+
+        assertFalse(employee.hasEntries(FEBRUARY_1));
+        assertFalse(employee.hasDailyTotal(JANUARY_31));
+        assertEquals("", employee.getDescription(FEBRUARY_1));
+        assertEquals(0.0, employee.getHours(FEBRUARY_1));
+        assertEquals(0.0, employee.getDailyTotal(FEBRUARY_1));
+    }
+
+    @Test
+    void totalHoursSpanMonthsWithinTheRange() {
+        EmployeeTimesheet employee = new EmployeeTimesheet("Alice");
+        employee.addDailyTotal(day(2025, 1, 1), 8);
+        employee.addDailyTotal(JANUARY_31, 7.5);
+        employee.addDailyTotal(FEBRUARY_1, 6);
+        employee.addDailyTotal(day(2025, 3, 1), 4);
+
+        assertEquals(25.5, employee.getTotalHours(day(2025, 1, 1), day(2025, 3, 1)));
+        assertEquals(13.5, employee.getTotalHours(JANUARY_31, day(2025, 2, 28)));
+        assertEquals(0.0, employee.getTotalHours(day(2025, 2, 2), day(2025, 2, 28)));
+    }
+
+    @Test
+    void indexTracksTheDateRangeAndSortsEmployees() {
+        TimesheetIndex index = new TimesheetIndex();
+        index.employee("Bob").addEntry(FEBRUARY_1, "Bug fixing", 1);
+        index.recordDate(FEBRUARY_1);
+        index.employee("Alice").addEntry(JANUARY_31, "Code review", 1);
+        index.recordDate(JANUARY_31);
+
+        assertEquals(JANUARY_31, index.getFirstDay());
+        assertEquals(FEBRUARY_1, index.getLastDay());
+        assertEquals("Alice", index.getEmployees().iterator().next().getName());
+        assertEquals(2, index.getEmployees().size());
+    }
+
+    private static int day(int year, int month, int dayOfMonth) {
+        return (int) LocalDate.of(year, month, dayOfMonth).toEpochDay();
+    }
+
+}
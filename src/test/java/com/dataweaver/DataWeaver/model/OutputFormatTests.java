@@ -0,0 +1,46 @@
+package com.dataweaver.DataWeaver.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class OutputFormatTests {
+
+    @Test
+    void missingOrWildcardAcceptLeavesTheDefault() {
+        assertNull(OutputFormat.fromAccept(null));
+        assertNull(OutputFormat.fromAccept(""));
+        assertEquals(OutputFormat.XLSX, OutputFormat.fromAccept("*/*"));
+    }
+
+    @Test
+    void clientDefaultHeadersKeepXlsx() {
+        assertEquals(OutputFormat.XLSX, OutputFormat.fromAccept("application/json, text/plain, */*"));
+        assertEquals(OutputFormat.XLSX, OutputFormat.fromAccept("text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"));
+    }
+
+    @Test
+    void explicitTypesSelectTheirFormat() {
+        assertEquals(OutputFormat.JSON, OutputFormat.fromAccept("application/json"));
+        assertEquals(OutputFormat.CSV, OutputFormat.fromAccept("text/csv"));
+        assertEquals(OutputFormat.CSV, OutputFormat.fromAccept("application/zip"));
+        assertEquals(OutputFormat.XLSX,
+            OutputFormat.fromAccept("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+    }
+
+    @Test
+    void qualityValuesOrderTheFormats() {
+        assertEquals(OutputFormat.JSON, OutputFormat.fromAccept("application/json, */*;q=0.1"));
+        assertEquals(OutputFormat.CSV, OutputFormat.fromAccept("application/json;q=0.5, text/csv"));
+        assertEquals(OutputFormat.JSON,
+            OutputFormat.fromAccept("*/*;q=0.5, application/json, application/vnd.openxmlformats-officedocument.spreadsheetml.sheet;q=0"));
+    }
+
+    @Test
+    void unmatchedOrMalformedHeadersGiveNoFormat() {
+        assertNull(OutputFormat.fromAccept("text/plain"));
+        assertNull(OutputFormat.fromAccept("not a media type"));
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.dataweaver.DataWeaver.reader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.model.TimesheetRecord;
+import com.dataweaver.DataWeaver.model.UploadFormat;
+import com.dataweaver.DataWeaver.support.SyntheticTimesheet;
+
+class DelimitedRowParserTests {
+
+    private static final String QUOTED_CSV = "Emp Name,Date,Description\r\n"
+        + "Zoë,\"Jan 05, 2025\",\"Said \"\"done\"\"\"\r\n"
+        + "\r\n"
+        + "Bob,,\"two\nlines\"\n"
+        + "Eve,\"Jan 06, 2025\"x,last";
+
+    @Test
+    void quotedFieldsKeepDelimitersLineBreaksAndQuotes() {
+        List<List<String>> rows = parse(bytes(QUOTED_CSV), (byte) ',', true);
+
+        assertEquals(List.of(
+            List.of("Emp Name", "Date", "Description"),
+            List.of("Zoë", "Jan 05, 2025", "Said \"done\""),
+            Arrays.asList("Bob", null, "two\nlines"),
+            List.of("Eve", "Jan 06, 2025x", "last")), rows);
+    }
+
+    @Test
+    void withoutQuotingQuotesArePartOfTheValue() {
+        List<List<String>> rows = parse(bytes("a\t\"b\"\t\r\n\"c\td\n"), (byte) '\t', false);
+
+        assertEquals(List.of(
+            Arrays.asList("a", "\"b\"", null),
+            List.of("\"c", "d")), rows);
+    }
+
+    @Test
+    void leadingByteOrderMarkIsIgnored() {
+        byte[] text = bytes("Emp Name,Date\r\nAlice,x\r\n");
+        byte[] withMark = new byte[text.length + 3];
+        withMark[0] = (byte) 0xEF;
+        withMark[1] = (byte) 0xBB;
+        withMark[2] = (byte) 0xBF;
+        System.arraycopy(text, 0, withMark, 3, text.length);
+
+        assertEquals(parse(text, (byte) ',', true), parse(withMark, (byte) ',', true));
+    }
+
+    @Test
+    void rowsSplitAcrossChunksParseTheSame() {
+        byte[] text = bytes(QUOTED_CSV);
+        List<List<String>> whole = parse(text, (byte) ',', true);
+
+        for (int split = 0; split <= text.length; split++) {
+            List<List<String>> rows = new ArrayList<>();
+            DelimitedRowParser parser = new DelimitedRowParser((byte) ',', true, row -> rows.add(new ArrayList<>(row)));
+            parser.feed(Arrays.copyOfRange(text, 0, split), split);
+            parser.feed(Arrays.copyOfRange(text, split, text.length), text.length - split);
+            parser.finish();
+            assertEquals(whole, rows, "split at " + split);
+        }
+
+        List<List<String>> rows = new ArrayList<>();
+        DelimitedRowParser parser = new DelimitedRowParser((byte) ',', true, row -> rows.add(new ArrayList<>(row)));
+        for (byte b: text) {
+            parser.feed(new byte[] {b}, 1);
+        }
+        parser.finish();
+        assertEquals(whole, rows);
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() {
+        DelimitedRowParser parser = new DelimitedRowParser((byte) ',', true, row -> { });
+        parser.feed(bytes("a,\"b\r\n"), 6);
+
+        assertThrows(IllegalArgumentException.class, parser::finish);
+    }
+
+    @Test
+    void syntheticUploadsReadEveryRowFromStreamsAndFiles(@TempDir Path directory) throws IOException {
+        DelimitedTimesheetReader reader = new DelimitedTimesheetReader(new ColumnMapping(new DataWeaverProperties()));
+        // large enough to cross several stream buffers
+        SyntheticTimesheet timesheet = new SyntheticTimesheet()
+            .employees(40)
+            .days(31)
+            .entriesPerDay(3)
+            .columnOrder(SyntheticTimesheet.ColumnOrder.SHUFFLED);
+
+        for (UploadFormat format: new UploadFormat[] {UploadFormat.CSV, UploadFormat.TSV}) {
+            byte[] upload = timesheet.toDelimited(format == UploadFormat.CSV ? ',' : '\t');
+            List<TimesheetRecord> fromStream = new ArrayList<>();
+            reader.read(new ByteArrayInputStream(upload), format, fromStream::add);
+            Path file = Files.write(directory.resolve("timesheet." + format.name().toLowerCase(Locale.ROOT)), upload);
+            List<TimesheetRecord> fromFile = new ArrayList<>();
+            reader.read(file, format, fromFile::add);
+
+            assertEquals(timesheet.rowCount(), fromStream.size(), format.name());
+            assertEquals(describe(fromStream), describe(fromFile), format.name());
+            TimesheetRecord first = fromStream.get(0);
+            assertEquals("Employee 00000", first.getEmployeeName());
+            assertEquals("Jan 01, 2025", first.getDate());
+            assertEquals("8", first.getTotalHours());
+            TimesheetRecord last = fromStream.get(fromStream.size() - 1);
+            assertEquals("Employee 00039", last.getEmployeeName());
+            assertEquals("Jan 31, 2025", last.getDate());
+        }
+    }
+
+    private static List<List<String>> parse(byte[] text, byte delimiter, boolean quoting) {
+        List<List<String>> rows = new ArrayList<>();
+        DelimitedRowParser parser = new DelimitedRowParser(delimiter, quoting, row -> rows.add(new ArrayList<>(row)));
+        parser.feed(text, text.length);
+        parser.finish();
+        return rows;
+    }
+
+    private static List<String> describe(List<TimesheetRecord> records) {
+        List<String> lines = new ArrayList<>();
+        for (TimesheetRecord record: records) {
+            lines.add(record.getEmployeeName() + "|" + record.getDate() + "|" + record.getDescription() + "|"
+                + record.getTaskHours() + "|" + record.getTotalHours());
+        }
+        return lines;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
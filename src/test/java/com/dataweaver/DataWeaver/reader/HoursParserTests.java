@@ -0,0 +1,55 @@
+package com.dataweaver.DataWeaver.reader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class HoursParserTests {
+
+    @Test
+    void blankValuesAreZero() {
+        assertEquals(0.0, HoursParser.parse(null));
+        assertEquals(0.0, HoursParser.parse(""));
+        assertEquals(0.0, HoursParser.parse("   "));
+    }
+
+    @Test
+    void clockValuesAddTheUsualQuarterHourFractions() {
+        assertEquals(8.0, HoursParser.parse("08:00"));
+        assertEquals(2.3, HoursParser.parse("02:15"));
+        assertEquals(7.5, HoursParser.parse("07:30"));
+        assertEquals(1.75, HoursParser.parse("01:45"));
+        assertEquals(3.0, HoursParser.parse("03:10"));
+        assertEquals(9.5, HoursParser.parse(" 9:30 "));
+    }
+
+    @Test
+    void onlyTwoDigitsBeforeTheColonAreHours() {
+        assertEquals(12.0, HoursParser.parse("112:00"));
+    }
+
+    @Test
+    void decimalsMatchParseDouble() {
+        for (String value: new String[] {"0", "7", "7.5", "0.25", "12.125", "3.", ".5", "0.1", "1.0000000000000002",
+                "123456789012345.6", "1e2", "0.30000000000000004"}) {
+            assertEquals(Double.parseDouble(value), HoursParser.parse(value), value);
+        }
+    }
+
+    @Test
+    void otherTextIsRejected() {
+        assertThrows(NumberFormatException.class, () -> HoursParser.parse("eight"));
+        assertThrows(NumberFormatException.class, () -> HoursParser.parse("8h"));
+        assertThrows(NumberFormatException.class, () -> HoursParser.parse("ab:30"));
+        assertThrows(NumberFormatException.class, () -> HoursParser.parse("08:"));
+        assertThrows(NumberFormatException.class, () -> HoursParser.parse("."));
+        assertThrows(NumberFormatException.class, () -> HoursParser.parse("NaN"));
+        assertThrows(NumberFormatException.class, () -> HoursParser.parse("Infinity"));
+        assertThrows(NumberFormatException.class, () -> HoursParser.parse("-Infinity"));
+        assertThrows(NumberFormatException.class, () -> HoursParser.parse("1e400"));
+        assertThrows(NumberFormatException.class, () -> HoursParser.parse("0x1p3"));
+        assertThrows(NumberFormatException.class, () -> HoursParser.parse("8d"));
+    }
+
+}
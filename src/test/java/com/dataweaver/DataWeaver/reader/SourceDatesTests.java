@@ -0,0 +1,57 @@
+package com.dataweaver.DataWeaver.reader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+class SourceDatesTests {
+
+    private static final DateTimeFormatter TEXT = DateTimeFormatter.ofPattern(SourceDates.SOURCE_PATTERN, Locale.ENGLISH);
+
+    @Test
+    void everyDayReadsBackAsItsEpochDay() {
+        for (LocalDate date = LocalDate.of(1899, 12, 1); date.getYear() <= 2101; date = date.plusDays(1)) {
+            String text = date.format(TEXT);
+            assertEquals(date.toEpochDay(), SourceDates.parseEpochDay(text), text);
+        }
+    }
+
+    @Test
+    void leapDaysFollowTheGregorianRules() {
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), SourceDates.parseEpochDay("Feb 29, 2024"));
+        assertEquals(LocalDate.of(2000, 2, 29).toEpochDay(), SourceDates.parseEpochDay("Feb 29, 2000"));
+        assertEquals(LocalDate.of(2025, 3, 1).toEpochDay(), SourceDates.parseEpochDay("Mar 01, 2025"));
+    }
+
+    @Test
+    void textOutsideThePatternIsRejected() {
+        assertThrows(DateTimeParseException.class, () -> SourceDates.parseEpochDay("2025-01-05"));
+        assertThrows(DateTimeParseException.class, () -> SourceDates.parseEpochDay("Jan 5, 2025"));
+        assertThrows(DateTimeParseException.class, () -> SourceDates.parseEpochDay("Foo 05, 2025"));
+        assertThrows(DateTimeParseException.class, () -> SourceDates.parseEpochDay("Jan 32, 2025"));
+        assertThrows(DateTimeParseException.class, () -> SourceDates.parseEpochDay(""));
+    }
+
+    @Test
+    void excelSerialsRoundTrip() {
+        assertEquals(0, SourceDates.fromExcelSerial(25569));
+        assertEquals(LocalDate.of(2025, 1, 5).toEpochDay(), SourceDates.fromExcelSerial(45662));
+        assertEquals(45662.0, SourceDates.toExcelSerial((int) LocalDate.of(2025, 1, 5).toEpochDay()));
+        for (int epochDay = -25000; epochDay <= 50000; epochDay += 7) {
+            assertEquals(epochDay, SourceDates.fromExcelSerial(SourceDates.toExcelSerial(epochDay)));
+        }
+    }
+
+    @Test
+    void excelTimeOfDayIsDropped() {
+        assertEquals(SourceDates.fromExcelSerial(45662), SourceDates.fromExcelSerial(45662.75));
+        assertEquals(SourceDates.fromExcelSerial(45662), SourceDates.fromExcelSerial(45662.0001));
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.dataweaver.DataWeaver.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.exception.RequestRejectedException;
+import com.dataweaver.DataWeaver.model.AdmissionDecision;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdmissionControlTests {
+
+    private final ExecutorService waiters = Executors.newCachedThreadPool();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        waiters.shutdownNow();
+    }
+
+    @Test
+    void costAboveTheWholeBudgetIsRejectedWith413() {
+        AdmissionControl admission = admission(10, 4, Duration.ofSeconds(5));
+
+        RequestRejectedException e = assertThrows(RequestRejectedException.class, () -> admission.admit(11));
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+    }
+
+    @Test
+    void waitPastMaxWaitIsRejectedWith429() throws Exception {
+        AdmissionControl admission = admission(10, 4, Duration.ofMillis(50));
+
+        try (AdmissionControl.Ticket held = admission.admit(10)) {
+            long start = System.nanoTime();
+            RequestRejectedException e = assertThrows(RequestRejectedException.class, () -> admission.admit(1));
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        }
+    }
+
+    @Test
+    void fullWaitQueueIsRejectedWith429AtOnce() throws Exception {
+        AdmissionControl admission = admission(10, 1, Duration.ofSeconds(30));
+
+        AdmissionControl.Ticket held = admission.admit(10);
+        Future<AdmissionControl.Ticket> waiting = waiters.submit(() -> admission.admit(5));
+        awaitWaiting(1);
+
+        long start = System.nanoTime();
+        RequestRejectedException e = assertThrows(RequestRejectedException.class, () -> admission.admit(1));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+        held.close();
+        waiting.get(5, TimeUnit.SECONDS).close();
+    }
+
+    @Test
+    void waitersAreAdmittedInArrivalOrder() throws Exception {
+        AdmissionControl admission = admission(10, 4, Duration.ofSeconds(30));
+
+        AdmissionControl.Ticket held = admission.admit(10);
+        Future<AdmissionControl.Ticket> first = waiters.submit(() -> admission.admit(10));
+        awaitWaiting(1);
+        Future<AdmissionControl.Ticket> second = waiters.submit(() -> admission.admit(1));
+        awaitWaiting(2);
+
+        held.close();
+        AdmissionControl.Ticket firstTicket = first.get(5, TimeUnit.SECONDS);
+        // the small upload arrived later, so it does not jump ahead once the large one is admitted
+        awaitWaiting(1);
+        assertFalse(second.isDone());
+
+        firstTicket.close();
+        second.get(5, TimeUnit.SECONDS).close();
+    }
+
+    @Test
+    void closingATicketTwiceReleasesItsCostOnce() throws Exception {
+        AdmissionControl admission = admission(10, 4, Duration.ofMillis(50));
+
+        AdmissionControl.Ticket ticket = admission.admit(6);
+        ticket.close();
+        ticket.close();
+
+        try (AdmissionControl.Ticket full = admission.admit(10)) {
+            assertThrows(RequestRejectedException.class, () -> admission.admit(1));
+        }
+    }
+
+    @Test
+    void previewMatchesWhatAdmitWouldDo() throws Exception {
+        AdmissionControl admission = admission(10, 4, Duration.ofSeconds(30));
+
+        assertEquals(AdmissionDecision.ADMIT, admission.preview(10));
+        assertEquals(AdmissionDecision.REJECT, admission.preview(11));
+        try (AdmissionControl.Ticket held = admission.admit(6)) {
+            assertEquals(AdmissionDecision.ADMIT, admission.preview(4));
+            assertEquals(AdmissionDecision.QUEUE, admission.preview(5));
+            assertEquals(AdmissionDecision.REJECT, admission.preview(11));
+        }
+        try (AdmissionControl.Ticket held = admission.admit(10)) {
+            assertEquals(AdmissionDecision.QUEUE, admission.preview(0));
+        }
+        assertEquals(AdmissionDecision.ADMIT, admission.preview(10));
+    }
+
+    private AdmissionControl admission(int maxConcurrentCost, int maxWaiting, Duration maxWait) {
+        DataWeaverProperties properties = new DataWeaverProperties();
+        properties.getAdmission().setMaxConcurrentCost(maxConcurrentCost);
+        properties.getAdmission().setMaxWaiting(maxWaiting);
+        properties.getAdmission().setMaxWait(maxWait);
+        return new AdmissionControl(properties, meterRegistry);
+    }
+
+    private void awaitWaiting(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("dataweaver.admission.waiting").gauge().value() != count) {
+            assertTrue(System.nanoTime() < deadline, "expected " + count + " uploads waiting");
+            Thread.sleep(5);
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.dataweaver.DataWeaver.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.dataweaver.DataWeaver.config.ColumnSizing;
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.config.SheetLayout;
+import com.dataweaver.DataWeaver.dto.GenerationOptions;
+import com.dataweaver.DataWeaver.model.TimesheetIndex;
+import com.dataweaver.DataWeaver.writer.EmployeeSheetBuilder;
+import com.dataweaver.DataWeaver.writer.WorkCalendar;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReportWriterTests {
+
+    private final DataWeaverProperties properties = new DataWeaverProperties();
+    private final EmployeeSheetBuilder employeeSheetBuilder = new EmployeeSheetBuilder(new WorkCalendar(properties));
+
+    @Test
+    void csvBundleHasASummaryAndAFilePerEmployeeSheet() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new CsvBundleReportWriter(properties, employeeSheetBuilder).write(report(), outputStream);
+        Map<String, List<String>> entries = unzip(outputStream.toByteArray());
+
+        assertEquals(List.of("Summary.csv", "Alice.csv", "Bob.csv"), List.copyOf(entries.keySet()));
+        assertEquals(List.of("Names,Hours,New/Existing", "Alice,7.5,Existing", "Bob,4,Existing", "Total Hours,11,"),
+            entries.get("Summary.csv"));
+
+        List<String> alice = entries.get("Alice.csv");
+        assertEquals(32, alice.size());
+        assertEquals("Name,Date,Title,Description,Project Time,Day Type", alice.get(0));
+        assertEquals("Alice,2025-01-01,Development,On Leave,,LEAVE", alice.get(1));
+        assertEquals("Alice,2025-01-02,Development,\"Code review, Deployment\",7.5,WORKDAY", alice.get(2));
+        assertEquals("Alice,2025-01-04,,,,WEEKEND", alice.get(4));
+        assertEquals("Bob,2025-01-03,Development,Bug fixing,4,WORKDAY", entries.get("Bob.csv").get(3));
+    }
+
+    @Test
+    void jsonHasTheDocumentedShape() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new JsonReportWriter(employeeSheetBuilder, objectMapper).write(report(), outputStream);
+        JsonNode root = objectMapper.readTree(outputStream.toByteArray());
+
+        assertEquals(List.of("from", "to", "summary", "timesheets"), fieldNames(root));
+        assertEquals("2025-01-01", root.get("from").asText());
+        assertEquals("2025-01-31", root.get("to").asText());
+        JsonNode summary = root.get("summary");
+        assertEquals(List.of("employees", "totalHours"), fieldNames(summary));
+        assertEquals(11, summary.get("totalHours").asInt());
+        JsonNode alice = summary.get("employees").get(0);
+        assertEquals(List.of("name", "hours", "status"), fieldNames(alice));
+        assertEquals("Alice", alice.get("name").asText());
+        assertEquals(7.5, alice.get("hours").asDouble());
+        assertEquals("Existing", alice.get("status").asText());
+
+        JsonNode timesheets = root.get("timesheets");
+        assertEquals(2, timesheets.size());
+        JsonNode sheet = timesheets.get(0);
+        assertEquals(List.of("sheet", "employee", "from", "to", "days"), fieldNames(sheet));
+        assertEquals("Alice", sheet.get("sheet").asText());
+        assertEquals("2025-01-01", sheet.get("from").asText());
+        assertEquals("2025-01-31", sheet.get("to").asText());
+        assertEquals(31, sheet.get("days").size());
+
+        JsonNode worked = sheet.get("days").get(1);
+        assertEquals(List.of("date", "title", "description", "projectTime", "type"), fieldNames(worked));
+        assertEquals("2025-01-02", worked.get("date").asText());
+        assertEquals("Code review, Deployment", worked.get("description").asText());
+        assertTrue(worked.get("projectTime").isNumber());
+        assertEquals(7.5, worked.get("projectTime").asDouble());
+        assertEquals("WORKDAY", worked.get("type").asText());
+
+        JsonNode leave = sheet.get("days").get(0);
+        assertTrue(leave.get("projectTime").isNull());
+        assertEquals("LEAVE", leave.get("type").asText());
+        assertEquals("WEEKEND", sheet.get("days").get(3).get("type").asText());
+    }
+
+    private Report report() {
+        TimesheetIndex index = new TimesheetIndex();
+        int january2 = day(2025, 1, 2);
+        index.employee("Bob").addEntry(day(2025, 1, 3), "Bug fixing", 4);
+        index.employee("Bob").addDailyTotal(day(2025, 1, 3), 4);
+        index.employee("Alice").addEntry(january2, "Code review", 2.5);
+        index.employee("Alice").addEntry(january2, "Deployment", 5);
+        index.employee("Alice").addDailyTotal(january2, 7.5);
+        index.recordDate(january2);
+        index.recordDate(day(2025, 1, 3));
+
+        GenerationOptions options = new GenerationOptions();
+        options.setColumnSizing(ColumnSizing.FAST);
+        options.setSheetLayout(SheetLayout.MONTHLY);
+        PipelineMetrics pipelineMetrics = new PipelineMetrics(new SimpleMeterRegistry());
+        return new Report(index, options, day(2025, 1, 1), day(2025, 1, 31),
+            pipelineMetrics.startTimer(PipelineMetrics.Stage.WAIT), ProgressListener.NONE);
+    }
+
+    private static Map<String, List<String>> unzip(byte[] zip) throws IOException {
+        Map<String, List<String>> entries = new LinkedHashMap<>();
+        try (ZipInputStream zipStream = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = zipStream.getNextEntry(); entry != null; entry = zipStream.getNextEntry()) {
+                String text = new String(zipStream.readAllBytes(), StandardCharsets.UTF_8);
+                entries.put(entry.getName(), Arrays.asList(text.split("\r\n")));
+            }
+        }
+        return entries;
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static int day(int year, int month, int dayOfMonth) {
+        return (int) LocalDate.of(year, month, dayOfMonth).toEpochDay();
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.dataweaver.DataWeaver.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.model.OutputFormat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResultCacheTests {
+
+    @TempDir
+    Path directory;
+
+    private ResultCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cache = cache(true);
+    }
+
+    @Test
+    void replacingAnEntryKeepsTheNewFile() throws IOException {
+        cache.put("key", OutputFormat.XLSX, bytes("first result"));
+        cache.put("key", OutputFormat.XLSX, bytes("second result"));
+
+        assertEquals("second result", read("key"));
+        assertEquals(1, files().size());
+    }
+
+    @Test
+    void evictedFileIsKeptUntilItsReaderCloses() throws IOException {
+        cache.put("old", OutputFormat.XLSX, bytes("x".repeat(60)));
+        ResultCache.CachedResult reader = cache.get("old").orElseThrow();
+
+        cache.put("new", OutputFormat.XLSX, bytes("y".repeat(60)));
+        assertTrue(cache.get("old").isEmpty());
+        assertEquals(2, files().size());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        reader.writeTo(outputStream);
+        assertEquals("x".repeat(60), outputStream.toString(StandardCharsets.UTF_8));
+        reader.close();
+        assertEquals(1, files().size());
+    }
+
+    @Test
+    void diskFilesTakeTheOutputFormatsExtension() throws IOException {
+        cache.put("csv", OutputFormat.CSV, bytes("zipped csv"));
+        cache.put("json", OutputFormat.JSON, bytes("json text"));
+
+        List<String> names = files().stream().map(file -> file.getFileName().toString()).sorted().toList();
+        assertTrue(names.stream().anyMatch(name -> name.endsWith(".zip")));
+        assertTrue(names.stream().anyMatch(name -> name.endsWith(".json")));
+        assertFalse(names.stream().anyMatch(name -> name.endsWith(".xlsx")));
+    }
+
+    @Test
+    void keyCoversTheUploadFormat() throws IOException {
+        byte[] upload = bytes("Emp Name,Date\n");
+        String asCsv = cache.keyFor(new MockMultipartFile("file", "t.csv", "text/csv", upload), "options");
+        String asTsv = cache.keyFor(new MockMultipartFile("file", "t.tsv", "text/tab-separated-values", upload), "options");
+        String again = cache.keyFor(new MockMultipartFile("file", "other.csv", "text/csv", upload), "options");
+
+        assertNotEquals(asCsv, asTsv);
+        assertEquals(asCsv, again);
+    }
+
+    @Test
+    void heapEntriesRoundTrip() throws IOException {
+        cache.put("small", OutputFormat.XLSX, bytes("abc"));
+
+        try (ResultCache.CachedResult result = cache.get("small").orElseThrow()) {
+            assertArrayEquals(bytes("abc"), result.toBytes());
+        }
+        assertTrue(files().isEmpty());
+    }
+
+    @Test
+    void streamedOutputOverTheHeapCapIsNotCopiedWithoutTheDiskTier() throws IOException {
+        ResultCache heapOnly = cache(false);
+        Path tempDirectory = Path.of(System.getProperty("java.io.tmpdir"));
+        List<Path> tempFilesBefore = list(tempDirectory);
+
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        heapOnly.writeThrough("large", OutputFormat.CSV, response, out -> {
+            out.write(bytes("ab"));
+            out.write(bytes("cdef"));
+            assertEquals(tempFilesBefore, list(tempDirectory));
+        });
+
+        assertEquals("abcdef", response.toString(StandardCharsets.UTF_8));
+        assertTrue(heapOnly.get("large").isEmpty());
+        assertEquals(tempFilesBefore, list(tempDirectory));
+        assertTrue(files().isEmpty());
+    }
+
+    @Test
+    void streamedOutputWithinTheHeapCapIsCachedWithoutTheDiskTier() throws IOException {
+        ResultCache heapOnly = cache(false);
+
+        heapOnly.writeThrough("small", OutputFormat.CSV, new ByteArrayOutputStream(), out -> out.write(bytes("abc")));
+
+        try (ResultCache.CachedResult result = heapOnly.get("small").orElseThrow()) {
+            assertArrayEquals(bytes("abc"), result.toBytes());
+        }
+    }
+
+    @Test
+    void unwritableDiskTierDoesNotFailTheResponse() throws IOException {
+        Files.delete(directory);
+
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        cache.writeThrough("large", OutputFormat.XLSX, response, out -> out.write(bytes("x".repeat(60))));
+        cache.put("other", OutputFormat.XLSX, bytes("y".repeat(60)));
+
+        assertEquals("x".repeat(60), response.toString(StandardCharsets.UTF_8));
+        assertTrue(cache.get("large").isEmpty());
+        assertTrue(cache.get("other").isEmpty());
+    }
+
+    @Test
+    void failedWriterIsNotCached() throws IOException {
+        assertThrows(IOException.class, () -> cache.writeThrough("failed", OutputFormat.XLSX,
+            new ByteArrayOutputStream(), out -> {
+                out.write(bytes("x".repeat(60)));
+                throw new IOException("writer failed");
+            }));
+
+        assertTrue(cache.get("failed").isEmpty());
+        assertTrue(files().isEmpty());
+    }
+
+    private ResultCache cache(boolean diskEnabled) throws IOException {
+        DataWeaverProperties properties = new DataWeaverProperties();
+        properties.getCache().setHeapEntryMaxSize(DataSize.ofBytes(4));
+        properties.getCache().setDiskEnabled(diskEnabled);
+        properties.getCache().setDiskDirectory(directory);
+        properties.getCache().setDiskMaxSize(DataSize.ofBytes(100));
+        return new ResultCache(properties, new SimpleMeterRegistry());
+    }
+
+    private String read(String key) throws IOException {
+        try (ResultCache.CachedResult result = cache.get(key).orElseThrow()) {
+            return new String(result.toBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private List<Path> files() throws IOException {
+        return list(directory);
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
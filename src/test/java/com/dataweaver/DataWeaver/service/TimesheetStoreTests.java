@@ -0,0 +1,175 @@
+package com.dataweaver.DataWeaver.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.dto.GenerationOptions;
+import com.dataweaver.DataWeaver.model.EmployeeTimesheet;
+import com.dataweaver.DataWeaver.model.TimesheetIndex;
+
+class TimesheetStoreTests {
+
+    private static final YearMonth JANUARY = YearMonth.of(2025, 1);
+
+    @TempDir
+    Path directory;
+
+    private TimesheetStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.shutdown();
+        }
+    }
+
+    @Test
+    void ingestedDaysSurviveARestart() throws IOException {
+        TimesheetIndex upload = new TimesheetIndex();
+        entry(upload, "Alice", day(1), "Code review", 3.5, 8);
+        entry(upload, "Alice", day(2), "Deployment", 8, 8);
+        entry(upload, "Bob", day(1), "Bug fixing", 6, 6);
+        openStore().ingest(upload);
+
+        restart();
+        TimesheetIndex stored = store.read(JANUARY, new GenerationOptions());
+
+        EmployeeTimesheet alice = employee(stored, "Alice");
+        assertEquals("Code review", alice.getDescription(day(1)));
+        assertEquals(3.5, alice.getHours(day(1)));
+        assertEquals(8.0, alice.getDailyTotal(day(1)));
+        assertEquals("Deployment", alice.getDescription(day(2)));
+        assertEquals("Bug fixing", employee(stored, "Bob").getDescription(day(1)));
+    }
+
+    @Test
+    void laterUploadReplacesOnlyItsDays() throws IOException {
+        TimesheetIndex first = new TimesheetIndex();
+        entry(first, "Alice", day(1), "Code review", 4, 4);
+        entry(first, "Alice", day(2), "Deployment", 8, 8);
+        TimesheetIndex second = new TimesheetIndex();
+        entry(second, "Alice", day(2), "Documentation", 5, 5);
+
+        openStore().ingest(first);
+        store.ingest(second);
+        store.ingest(second);
+
+        EmployeeTimesheet alice = employee(store.read(JANUARY, new GenerationOptions()), "Alice");
+        assertEquals("Code review", alice.getDescription(day(1)));
+        assertEquals("Documentation", alice.getDescription(day(2)));
+        assertEquals(5.0, alice.getHours(day(2)));
+    }
+
+    @Test
+    void failedIngestLeavesCommittedDaysIntact() throws IOException {
+        TimesheetIndex first = new TimesheetIndex();
+        entry(first, "Alice", day(1), "Code review", 4, 4);
+        openStore().ingest(first);
+
+        // a February file that cannot be opened fails the upload after its January day was staged
+        Files.write(directory.resolve("2025-02.slots"), new byte[64]);
+        TimesheetIndex failing = new TimesheetIndex();
+        entry(failing, "Alice", day(2), "A description only this upload has", 8, 8);
+        entry(failing, "Alice", (int) LocalDate.of(2025, 2, 3).toEpochDay(), "Deployment", 8, 8);
+        assertThrows(IOException.class, () -> store.ingest(failing));
+
+        // strings appended now land where the failed upload's were
+        TimesheetIndex next = new TimesheetIndex();
+        entry(next, "Bob", day(3), "Sprint planning and more", 2, 2);
+        store.ingest(next);
+
+        for (int pass = 0; pass < 2; pass++) {
+            TimesheetIndex stored = store.read(JANUARY, new GenerationOptions());
+            EmployeeTimesheet alice = employee(stored, "Alice");
+            assertEquals("Code review", alice.getDescription(day(1)));
+            assertFalse(alice.hasEntries(day(2)));
+            assertFalse(alice.hasDailyTotal(day(2)));
+            assertEquals("Sprint planning and more", employee(stored, "Bob").getDescription(day(3)));
+            restart();
+        }
+    }
+
+    @Test
+    void segmentClosedWithoutCommitKeepsItsFiles() throws IOException {
+        TimesheetIndex first = new TimesheetIndex();
+        entry(first, "Alice", day(1), "Code review", 4, 4);
+        TimesheetIndex uncommitted = new TimesheetIndex();
+        entry(uncommitted, "Alice", day(1), "Never committed", 1, 1);
+        entry(uncommitted, "Carol", day(5), "Also never committed", 2, 2);
+
+        try (MonthSegment segment = MonthSegment.open(directory, JANUARY, true)) {
+            segment.replaceDay(employee(first, "Alice"), day(1));
+            segment.commit();
+            segment.replaceDay(employee(uncommitted, "Alice"), day(1));
+            segment.replaceDay(employee(uncommitted, "Carol"), day(5));
+        }
+
+        try (MonthSegment segment = MonthSegment.open(directory, JANUARY, false)) {
+            TimesheetIndex stored = new TimesheetIndex();
+            segment.readInto(stored, day(1), day(31));
+            assertEquals(1, stored.getEmployees().size());
+            assertEquals("Code review", employee(stored, "Alice").getDescription(day(1)));
+        }
+    }
+
+    @Test
+    void segmentGrowsPastItsInitialCapacity() throws IOException {
+        TimesheetIndex upload = new TimesheetIndex();
+        for (int i = 0; i < 200; i++) {
+            entry(upload, String.format("Employee %03d", i), day(1 + i % 28), "Task " + i, 1, 1);
+        }
+        openStore().ingest(upload);
+        restart();
+
+        TimesheetIndex stored = store.read(JANUARY, new GenerationOptions());
+        assertEquals(200, stored.getEmployees().size());
+        assertEquals("Task 137", employee(stored, "Employee 137").getDescription(day(1 + 137 % 28)));
+    }
+
+    private TimesheetStore openStore() {
+        DataWeaverProperties properties = new DataWeaverProperties();
+        properties.getStore().setDirectory(directory);
+        store = new TimesheetStore(properties, null);
+        return store;
+    }
+
+    private void restart() {
+        store.shutdown();
+        openStore();
+    }
+
+    private static void entry(TimesheetIndex index, String name, int epochDay, String description, double hours,
+            double dailyTotal) {
+        EmployeeTimesheet employee = index.employee(name);
+        employee.addEntry(epochDay, description, hours);
+        employee.addDailyTotal(epochDay, dailyTotal);
+        index.recordDate(epochDay);
+    }
+
+    private static EmployeeTimesheet employee(TimesheetIndex index, String name) {
+        EmployeeTimesheet employee = index.getEmployees().stream()
+            .filter(candidate -> candidate.getName().equals(name))
+            .findFirst()
+            .orElse(null);
+        assertTrue(employee != null, name + " is missing");
+        return employee;
+    }
+
+    private static int day(int dayOfMonth) {
+        return (int) JANUARY.atDay(dayOfMonth).toEpochDay();
+    }
+
+}
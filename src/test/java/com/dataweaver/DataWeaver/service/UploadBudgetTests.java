@@ -0,0 +1,52 @@
+package com.dataweaver.DataWeaver.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.exception.RequestRejectedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UploadBudgetTests {
+
+    private final UploadBudget budget = budget(100);
+
+    @Test
+    void uploadOverTheWholeBudgetIsRejectedWith413() {
+        RequestRejectedException e = assertThrows(RequestRejectedException.class, () -> budget.reserve(101));
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+    }
+
+    @Test
+    void uploadOverTheFreeBudgetIsRejectedWith429() {
+        try (UploadBudget.Reservation held = budget.reserve(60)) {
+            budget.reserve(40).close();
+            RequestRejectedException e = assertThrows(RequestRejectedException.class, () -> budget.reserve(41));
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+        }
+        budget.reserve(100).close();
+    }
+
+    @Test
+    void closingAReservationTwiceReleasesItOnce() {
+        UploadBudget.Reservation reservation = budget.reserve(60);
+        reservation.close();
+        reservation.close();
+
+        try (UploadBudget.Reservation full = budget.reserve(100)) {
+            assertThrows(RequestRejectedException.class, () -> budget.reserve(1));
+        }
+    }
+
+    private static UploadBudget budget(long maxBytes) {
+        DataWeaverProperties properties = new DataWeaverProperties();
+        properties.getUploads().setMaxConcurrentSize(DataSize.ofBytes(maxBytes));
+        return new UploadBudget(properties, new SimpleMeterRegistry());
+    }
+
+}
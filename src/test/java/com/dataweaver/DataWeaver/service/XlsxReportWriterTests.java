@@ -0,0 +1,77 @@
+package com.dataweaver.DataWeaver.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.dataweaver.DataWeaver.config.ColumnSizing;
+import com.dataweaver.DataWeaver.config.DataWeaverProperties;
+import com.dataweaver.DataWeaver.config.SheetLayout;
+import com.dataweaver.DataWeaver.dto.GenerationOptions;
+import com.dataweaver.DataWeaver.model.TimesheetIndex;
+import com.dataweaver.DataWeaver.writer.EmployeeSheetBuilder;
+import com.dataweaver.DataWeaver.writer.WorkCalendar;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class XlsxReportWriterTests {
+
+    private static final String[] TASKS = {"Code review", "Sprint planning", "Bug fixing", "Deployment"};
+
+    @Test
+    void outputIsTheSameWhateverThePoolSize() throws IOException {
+        TimesheetIndex index = index(40, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 28));
+
+        byte[] sequential = render(index, 1);
+        assertArrayEquals(sequential, render(index, 4));
+        assertArrayEquals(sequential, render(index, 4));
+    }
+
+    private static byte[] render(TimesheetIndex index, int parallelism) throws IOException {
+        DataWeaverProperties properties = new DataWeaverProperties();
+        properties.getProcessing().setParallelism(parallelism);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PipelineMetrics pipelineMetrics = new PipelineMetrics(meterRegistry);
+        XlsxReportWriter writer = new XlsxReportWriter(properties, new EmployeeSheetBuilder(new WorkCalendar(properties)),
+            new ProcessingLimiter(properties, meterRegistry), pipelineMetrics);
+
+        GenerationOptions options = new GenerationOptions();
+        options.setColumnSizing(ColumnSizing.FAST);
+        options.setSheetLayout(SheetLayout.MONTHLY);
+        Report report = new Report(index, options, day(LocalDate.of(2025, 1, 1)), day(LocalDate.of(2025, 2, 28)),
+            pipelineMetrics.startTimer(PipelineMetrics.Stage.WAIT), ProgressListener.NONE);
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            writer.write(report, outputStream);
+            return outputStream.toByteArray();
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    private static TimesheetIndex index(int employees, LocalDate first, LocalDate last) {
+        TimesheetIndex index = new TimesheetIndex();
+        for (int employee = 0; employee < employees; employee++) {
+            for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+                int epochDay = day(date);
+                if ((employee + epochDay) % 5 == 0) {
+                    continue;
+                }
+                index.employee("Employee " + employee).addEntry(epochDay, TASKS[(employee + epochDay) % TASKS.length],
+                    1 + (employee + epochDay) % 7);
+                index.employee("Employee " + employee).addDailyTotal(epochDay, 8);
+                index.recordDate(epochDay);
+            }
+        }
+        return index;
+    }
+
+    private static int day(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+}
@@ -0,0 +1,225 @@
+package com.dataweaver.DataWeaver.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Generates team timesheet uploads of a chosen size for benchmarks and load
+ * tests. Output is fully determined by the parameters and the seed.
+ */
+public class SyntheticTimesheet {
+
+    public enum ColumnOrder {
+        /** Emp Id, Emp Name, Project, Date, Description, Task Hours, Total Hours. */
+        STANDARD,
+        REVERSED,
+        /** A fixed permutation of the standard order. */
+        SHUFFLED
+    }
+
+    private static final String[] STANDARD_COLUMNS =
+        {"Emp Id", "Emp Name", "Project", "Date", "Description", "Task Hours", "Total Hours"};
+    private static final String[] TASKS =
+        {"Code review", "Sprint planning", "Bug fixing", "Feature development", "Deployment", "Documentation"};
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy", Locale.ENGLISH);
+
+    private int employees = 50;
+    private int days = 31;
+    private int entriesPerDay = 2;
+    private ColumnOrder columnOrder = ColumnOrder.STANDARD;
+    private LocalDate firstDay = LocalDate.of(2025, 1, 1);
+    private long seed = 42;
+
+    public SyntheticTimesheet employees(int employees) {
+        this.employees = employees;
+        return this;
+    }
+
+    /** Days of the month to fill, starting from the 1st. */
+    public SyntheticTimesheet days(int days) {
+        this.days = days;
+        return this;
+    }
+
+    public SyntheticTimesheet entriesPerDay(int entriesPerDay) {
+        this.entriesPerDay = entriesPerDay;
+        return this;
+    }
+
+    public SyntheticTimesheet columnOrder(ColumnOrder columnOrder) {
+        this.columnOrder = columnOrder;
+        return this;
+    }
+
+    public SyntheticTimesheet firstDay(LocalDate firstDay) {
+        this.firstDay = firstDay;
+        return this;
+    }
+
+    public SyntheticTimesheet seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public int rowCount() {
+        return employees * days * entriesPerDay;
+    }
+
+    public byte[] toXlsx() throws IOException {
+        String[] columns = orderedColumns();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(500);
+        try {
+            Sheet sheet = workbook.createSheet("Timesheet");
+            Row header = sheet.createRow(0);
+            for (int column = 0; column < columns.length; column++) {
+                header.createCell(column).setCellValue(columns[column]);
+            }
+
+            Random random = new Random(seed);
+            int rowIndex = 1;
+            for (int employee = 0; employee < employees; employee++) {
+                String name = "Employee " + String.format("%05d", employee);
+                for (int day = 0; day < days; day++) {
+                    String date = firstDay.plusDays(day).format(DATE_FORMAT);
+                    for (int entry = 0; entry < entriesPerDay; entry++) {
+                        Row row = sheet.createRow(rowIndex++);
+                        for (int column = 0; column < columns.length; column++) {
+                            writeValue(row, column, columns[column], employee, name, date, random);
+                        }
+                    }
+                }
+            }
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            workbook.write(outputStream);
+            return outputStream.toByteArray();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    /**
+     * The same rows as {@link #toXlsx()} as delimited text. Every value is
+     * text, and with a comma delimiter any value containing a comma, such as
+     * the dates, is quoted.
+     */
+    public byte[] toDelimited(char delimiter) {
+        String[] columns = orderedColumns();
+        StringBuilder text = new StringBuilder(rowCount() * 80);
+        appendLine(text, columns, delimiter);
+
+        Random random = new Random(seed);
+        String[] values = new String[columns.length];
+        for (int employee = 0; employee < employees; employee++) {
+            String name = "Employee " + String.format("%05d", employee);
+            for (int day = 0; day < days; day++) {
+                String date = firstDay.plusDays(day).format(DATE_FORMAT);
+                for (int entry = 0; entry < entriesPerDay; entry++) {
+                    for (int column = 0; column < columns.length; column++) {
+                        values[column] = textValue(columns[column], employee, name, date, random);
+                    }
+                    appendLine(text, values, delimiter);
+                }
+            }
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendLine(StringBuilder text, String[] values, char delimiter) {
+        for (int column = 0; column < values.length; column++) {
+            if (column > 0) {
+                text.append(delimiter);
+            }
+            String value = values[column];
+            if (delimiter == ',' && value.indexOf(',') >= 0) {
+                text.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                text.append(value);
+            }
+        }
+        text.append("\r\n");
+    }
+
+    private String textValue(String field, int employee, String name, String date, Random random) {
+        switch (field) {
+            case "Emp Id":
+                return "E" + employee;
+            case "Emp Name":
+                return name;
+            case "Project":
+                return "Project " + (employee % 7);
+            case "Date":
+                return date;
+            case "Description":
+                return TASKS[random.nextInt(TASKS.length)];
+            case "Task Hours":
+                int hours = 1 + random.nextInt(4);
+                if (random.nextBoolean()) {
+                    return String.format("%02d:%02d", hours, 15 * random.nextInt(4));
+                }
+                return String.valueOf(hours);
+            case "Total Hours":
+                return "8";
+            default:
+                return "";
+        }
+    }
+
+    private void writeValue(Row row, int column, String field, int employee, String name, String date, Random random) {
+        switch (field) {
+            case "Emp Id":
+                row.createCell(column).setCellValue("E" + employee);
+                break;
+            case "Emp Name":
+                row.createCell(column).setCellValue(name);
+                break;
+            case "Project":
+                row.createCell(column).setCellValue("Project " + (employee % 7));
+                break;
+            case "Date":
+                row.createCell(column).setCellValue(date);
+                break;
+            case "Description":
+                row.createCell(column).setCellValue(TASKS[random.nextInt(TASKS.length)]);
+                break;
+            case "Task Hours":
+                int hours = 1 + random.nextInt(4);
+                if (random.nextBoolean()) {
+                    row.createCell(column).setCellValue(String.format("%02d:%02d", hours, 15 * random.nextInt(4)));
+                } else {
+                    row.createCell(column).setCellValue(hours);
+                }
+                break;
+            case "Total Hours":
+                row.createCell(column).setCellValue(8);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private String[] orderedColumns() {
+        List<String> columns = new ArrayList<>(Arrays.asList(STANDARD_COLUMNS));
+        if (columnOrder == ColumnOrder.REVERSED) {
+            Collections.reverse(columns);
+        } else if (columnOrder == ColumnOrder.SHUFFLED) {
+            Collections.shuffle(columns, new Random(7));
+        }
+        return columns.toArray(new String[0]);
+    }
+
+}